@@ -0,0 +1,36 @@
+package com.example.ecommerce.api;
+
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+/**
+ * Keeps {@link TestConfiguration} classes out of component scanning for benchmarks that start the whole
+ * application. The test classes are on the benchmark classpath, and outside a Spring Boot test nothing
+ * excludes them, so e.g. the integration tests' embedded PostgreSQL data source would replace the pooled one.
+ * Register it with {@code new SpringApplicationBuilder(...).initializers(TestConfigurationExcludeFilter::register)}.
+ */
+public class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+
+    public static void register(ConfigurableApplicationContext context) {
+        context.getBeanFactory().registerSingleton(TestConfigurationExcludeFilter.class.getName(),
+                new TestConfigurationExcludeFilter());
+    }
+
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+        return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj != null && getClass() == obj.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
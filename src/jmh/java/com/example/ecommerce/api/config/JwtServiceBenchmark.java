@@ -0,0 +1,70 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticating one request: verifying the token once with the shared parser, against building the key and
+ * parser for every claim read and parsing the token three times (subject, subject again, expiry), as before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // same key as JwtService
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        user = User.builder()
+                .email("john@gmail.com")
+                .role(UserRole.USER)
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean verifyOnce() {
+        return jwtService.isTokenValid(jwtService.verify(token), user);
+    }
+
+    @Benchmark
+    public boolean parsePerClaimWithNewParser() {
+        String subject = parse().getSubject();
+        return subject.equals(user.getUsername()) && parse().getSubject().equals(subject)
+                && parse().getExpiration().getTime() > System.currentTimeMillis();
+    }
+
+    private Claims parse() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
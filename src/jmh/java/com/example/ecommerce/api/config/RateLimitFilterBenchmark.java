@@ -0,0 +1,84 @@
+package com.example.ecommerce.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of rate limiting, which should stay well under a microsecond: the limiter alone for one
+ * client and for many clients from all cores, and the whole filter around a chain that does nothing. Limits
+ * are high enough that no request is ever rejected, so only the admitting path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private String[] clients;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(Long.MAX_VALUE / 1_000_000_000L);
+        limit.setRefillPerSecond(1_000_000_000);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(Map.of("catalog", limit));
+
+        rateLimiter = new RateLimiter(properties);
+        filter = new RateLimitFilter(rateLimiter, new ObjectMapper());
+
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "user" + i + "@example.com";
+            rateLimiter.tryAcquire("catalog", clients[i]);
+        }
+
+        request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public long limiterOneClient() {
+        return rateLimiter.tryAcquire("catalog", clients[0]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long limiterManyClients() {
+        return rateLimiter.tryAcquire("catalog", clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    @Benchmark
+    public void filter() throws ServletException, IOException {
+        filter.doFilter(request, response, chain);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.mapstruct.dto.user.AuthenticationRequestDto;
+import com.example.ecommerce.api.mapstruct.dto.user.AuthenticationResponseDto;
+import com.example.ecommerce.api.mapstruct.dto.user.RegistrationRequestDto;
+import com.example.ecommerce.api.service.interfaces.IAuthenticationService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost that {@link ServiceMetricsAspect} adds to a service call: an empty service method called directly,
+ * through a Spring AOP proxy without advice, and through the timing aspect recording into a Prometheus
+ * registry with percentile histograms, as configured in application.yml. Run with {@code -prof gc} to see
+ * that the timed call does not allocate once its timer exists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMetricsAspectBenchmark {
+
+    private final RegistrationRequestDto request = new RegistrationRequestDto();
+    private IAuthenticationService direct;
+    private IAuthenticationService proxied;
+    private IAuthenticationService timed;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+
+        direct = new NoOpAuthenticationService();
+        proxied = new AspectJProxyFactory(new NoOpAuthenticationService()).getProxy();
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new NoOpAuthenticationService());
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        timed = factory.getProxy();
+    }
+
+    @Benchmark
+    public void directCall() {
+        direct.register(request);
+    }
+
+    @Benchmark
+    public void proxyWithoutAdvice() {
+        proxied.register(request);
+    }
+
+    @Benchmark
+    public void timedCall() {
+        timed.register(request);
+    }
+
+    static class NoOpAuthenticationService implements IAuthenticationService {
+        @Override
+        public void register(RegistrationRequestDto request) {
+        }
+
+        @Override
+        public AuthenticationResponseDto authenticate(AuthenticationRequestDto request) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.ecommerce.api.controller;
+
+import com.example.ecommerce.api.EcommerceApiApplication;
+import com.example.ecommerce.api.TestConfigurationExcludeFilter;
+import com.example.ecommerce.api.config.ConnectionLimitingDataSource;
+import com.example.ecommerce.api.config.JwtService;
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of {@code GET /api/v1/cart} and {@code GET /api/v1/orders} with requests
+ * on Tomcat's platform thread pool and on virtual threads. The whole application runs on an embedded Tomcat
+ * against embedded PostgreSQL, with more concurrent clients than Tomcat has platform threads, so requests
+ * queue for the connection pool in both modes: in front of Tomcat's pool with platform threads, on the
+ * {@link ConnectionLimitingDataSource} semaphore with virtual threads.
+ * <p>
+ * The virtual-thread mode only exists in a {@code -Pjdk21} build running on JDK 21:
+ * {@code mvn -Pjdk21,jmh test-compile exec:exec -Djmh.include=CartOrderLoadBenchmark}.
+ * Rate limiting is off, every request must succeed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(CartOrderLoadBenchmark.CLIENTS)
+@Fork(1)
+public class CartOrderLoadBenchmark {
+
+    // twice Tomcat's default of 200 request threads
+    static final int CLIENTS = 400;
+    private static final int USERS = 1_000;
+    private static final int PRODUCTS = 1_000;
+    private static final int CART_ITEMS_PER_USER = 10;
+    private static final int ORDERS_PER_USER = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<String> tokens;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        // as command line arguments, so they take precedence over application.yml
+        context = new SpringApplicationBuilder(EcommerceApiApplication.class)
+                .initializers(TestConfigurationExcludeFilter::register)
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=-1",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--application.rate-limit.enabled=false",
+                        "--application.threads.virtual.enabled=" + virtualThreads);
+
+        if (virtualThreads && !context.getBean(DataSource.class).isWrapperFor(ConnectionLimitingDataSource.class)) {
+            context.close();
+            postgres.close();
+            throw new IllegalStateException("virtual threads need a -Pjdk21 build running on JDK 21");
+        }
+
+        seed(context.getBean(JdbcTemplate.class));
+
+        JwtService jwtService = context.getBean(JwtService.class);
+        tokens = new ArrayList<>(USERS);
+        for (int i = 1; i <= USERS; i++) {
+            tokens.add(jwtService.generateToken(User.builder()
+                    .email("user" + i + "@example.com")
+                    .role(UserRole.USER)
+                    .build()));
+        }
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public String getCart(Client client) throws IOException, InterruptedException {
+        return get("/api/v1/cart", client.token);
+    }
+
+    @Benchmark
+    public String getOrders(Client client) throws IOException, InterruptedException {
+        return get("/api/v1/orders", client.token);
+    }
+
+    private String get(String path, String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO _user (first_name, last_name, email, password, role)
+                SELECT 'John', 'Doe', 'user' || i || '@example.com', 'password', 'USER'
+                FROM generate_series(1, ?) i
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO product (name, description, image_url, price, currency, stock_quantity)
+                SELECT 'Product ' || i, 'Description', 'https://example.com/' || i, i % 100, 'EUR', 1000
+                FROM generate_series(1, ?) i
+                """, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO cart (user_id, product_id, quantity, date_created)
+                SELECT u, (u * 7 + c) % ? + 1, 1, now() - c * interval '1 hour'
+                FROM generate_series(1, ?) u, generate_series(1, ?) c
+                """, PRODUCTS, USERS, CART_ITEMS_PER_USER);
+        jdbcTemplate.update("""
+                INSERT INTO _order (id, user_id, date_created, total_price, currency)
+                SELECT (u - 1) * ? + o, u, now() - o * interval '1 day', 100, 'EUR'
+                FROM generate_series(1, ?) u, generate_series(1, ?) o
+                """, ORDERS_PER_USER, USERS, ORDERS_PER_USER);
+        jdbcTemplate.update("""
+                INSERT INTO order_item (id, order_id, product_id, quantity, price, stock_applied)
+                SELECT (o.id - 1) * ? + i, o.id, (o.id * 3 + i) % ? + 1, 1, 10, true
+                FROM _order o, generate_series(1, ?) i
+                """, ITEMS_PER_ORDER, PRODUCTS, ITEMS_PER_ORDER);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // each client thread signs in as its own user, as real clients would
+    @State(Scope.Thread)
+    public static class Client {
+        private String token;
+
+        @Setup
+        public void setUp(CartOrderLoadBenchmark benchmark, ThreadParams threadParams) {
+            token = benchmark.tokens.get(threadParams.getThreadIndex() % USERS);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ecommerce.api.repository;
+
+import com.example.ecommerce.api.EcommerceApiApplication;
+import com.example.ecommerce.api.TestConfigurationExcludeFilter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link ProductRepository#search} over a catalog of one million products, on PostgreSQL with the
+ * schema Hibernate generates from the entities. Sample time mode reports the p50 and p99 per query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"phone", "wireless charger", "laptop -tablet"})
+    private String query;
+
+    private EmbeddedPostgres postgres;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private String searchSql;
+
+    @Setup
+    public void setUp() throws IOException, NoSuchMethodException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        // the schema Hibernate generates from the entities, as at runtime, with the GIN index on search_vector
+        new SpringApplicationBuilder(EcommerceApiApplication.class)
+                .initializers(TestConfigurationExcludeFilter::register)
+                .run("--server.port=0",
+                        "--management.server.port=-1",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--logging.level.root=WARN")
+                .close();
+
+        new JdbcTemplate(dataSource).update("""
+                INSERT INTO product (name, description, image_url, price, currency, stock_quantity)
+                SELECT (ARRAY['Phone', 'Charger', 'Laptop', 'Tablet', 'Cable', 'Case', 'Camera', 'Headphones'])[1 + i % 8]
+                           || ' ' || i,
+                       'A ' || (ARRAY['wireless', 'compact', 'rugged', 'premium', 'budget'])[1 + i % 5] || ' '
+                           || (ARRAY['phone', 'charger', 'laptop', 'tablet', 'cable'])[1 + i % 7 % 5]
+                           || ' accessory',
+                       'https://example.com/' || i, i % 100000, 'EUR', i % 50
+                FROM generate_series(1, ?) i
+                """, PRODUCTS);
+        new JdbcTemplate(dataSource).execute("ANALYZE product");
+
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        // the repository query itself, so the benchmark follows any change to it
+        searchSql = ProductRepository.class.getMethod("search", String.class, int.class, long.class)
+                .getAnnotation(Query.class).value();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> firstPage() {
+        return jdbcTemplate.queryForList(searchSql, Map.of("query", query, "limit", PAGE_SIZE + 1, "offset", 0L));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.ecommerce.api.service;
+
+import com.example.ecommerce.api.EcommerceApiApplication;
+import com.example.ecommerce.api.TestConfigurationExcludeFilter;
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.repository.UserRepository;
+import com.example.ecommerce.api.service.interfaces.IOrderService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout throughput when every order buys the same product, through {@link IOrderService#createOrder} on
+ * PostgreSQL. With hot product mode off each checkout reserves stock with the conditional {@code UPDATE} of
+ * the product row and holds its row lock until commit, so checkouts of that product run one at a time. With
+ * the mode on they take from the striped in-memory counter and the row is only written by the periodic flush.
+ * <p>
+ * Each operation puts the product into the client's cart and checks it out. The stock is large enough never
+ * to run out during a run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(HotProductCheckoutBenchmark.CLIENTS)
+@Fork(1)
+public class HotProductCheckoutBenchmark {
+
+    static final int CLIENTS = 32;
+    private static final long HOT_PRODUCT_ID = 1;
+    private static final long STOCK = 1_000_000_000;
+
+    @Param({"false", "true"})
+    private boolean hotProductMode;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private IOrderService orderService;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        // the schema Hibernate generates, as at runtime; the hot product has to exist before the application
+        // starts, that is when its counter is loaded
+        start("--spring.jpa.hibernate.ddl-auto=create").close();
+        seed(new JdbcTemplate(postgres.getPostgresDatabase()));
+        context = start("--spring.jpa.hibernate.ddl-auto=none");
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        orderService = context.getBean(IOrderService.class);
+    }
+
+    // as command line arguments, so they take precedence over application.yml
+    private ConfigurableApplicationContext start(String ddlAuto) {
+        return new SpringApplicationBuilder(EcommerceApiApplication.class)
+                .initializers(TestConfigurationExcludeFilter::register)
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=-1",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.flyway.enabled=false",
+                        ddlAuto,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--application.inventory.hot-sku.enabled=" + hotProductMode,
+                        "--application.inventory.hot-sku.product-ids=" + HOT_PRODUCT_ID);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public long checkout(Client client) {
+        jdbcTemplate.update("""
+                INSERT INTO cart (user_id, product_id, quantity, date_created)
+                VALUES (?, ?, 1, now())
+                """, client.user.getId(), HOT_PRODUCT_ID);
+
+        return orderService.createOrder(client.user);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO _user (first_name, last_name, email, password, role)
+                SELECT 'John', 'Doe', 'user' || i || '@example.com', 'password', 'USER'
+                FROM generate_series(1, ?) i
+                """, CLIENTS);
+        jdbcTemplate.update("""
+                INSERT INTO product (id, name, description, image_url, price, currency, stock_quantity)
+                VALUES (?, 'Flash sale', 'Description', 'https://example.com/1', 100, 'EUR', ?)
+                """, HOT_PRODUCT_ID, STOCK);
+    }
+
+    // each client thread checks out as its own user, so their carts do not interfere
+    @State(Scope.Thread)
+    public static class Client {
+        private User user;
+
+        @Setup
+        public void setUp(HotProductCheckoutBenchmark benchmark, ThreadParams threadParams) {
+            user = benchmark.context.getBean(UserRepository.class)
+                    .findByEmail("user" + (threadParams.getThreadIndex() + 1) + "@example.com")
+                    .orElseThrow();
+        }
+    }
+}
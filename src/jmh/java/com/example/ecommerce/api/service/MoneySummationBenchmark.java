@@ -0,0 +1,81 @@
+package com.example.ecommerce.api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An order total over the cart lines, the way OrderService sums it (exact long minor units) against the same
+ * sum over BigDecimal amounts and over the doubles used before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneySummationBenchmark {
+
+    @Param({"10", "100"})
+    private int lines;
+
+    private long[] minorUnitPrices;
+    private BigDecimal[] decimalPrices;
+    private double[] doublePrices;
+    private long[] quantities;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        minorUnitPrices = new long[lines];
+        decimalPrices = new BigDecimal[lines];
+        doublePrices = new double[lines];
+        quantities = new long[lines];
+
+        for (int i = 0; i < lines; i++) {
+            minorUnitPrices[i] = random.nextLong(1, 100_000);
+            decimalPrices[i] = BigDecimal.valueOf(minorUnitPrices[i], 2);
+            doublePrices[i] = minorUnitPrices[i] / 100.0;
+            quantities[i] = random.nextLong(1, 10);
+        }
+    }
+
+    @Benchmark
+    public long exactMinorUnits() {
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            total = Math.addExact(total, Math.multiplyExact(minorUnitPrices[i], quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double doubles() {
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            total += doublePrices[i] * quantities[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ecommerce.api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reservations of one hot product from many threads at once: the striped counter against a single atomic
+ * counter, which is what every checkout thread would otherwise spin on. Each reservation is handed back
+ * right away so the stock never runs out during a run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class StripedStockCounterBenchmark {
+
+    private static final long STOCK = 1_000_000;
+
+    private StripedStockCounter striped;
+    private AtomicLong single;
+
+    @Setup
+    public void setUp() {
+        striped = new StripedStockCounter(STOCK, Runtime.getRuntime().availableProcessors());
+        single = new AtomicLong(STOCK);
+    }
+
+    @Benchmark
+    public boolean stripedCounter() {
+        boolean taken = striped.tryTake(1);
+        if (taken) striped.release(1);
+        return taken;
+    }
+
+    @Benchmark
+    public boolean singleCounter() {
+        boolean taken = tryTake(single, 1);
+        if (taken) single.addAndGet(1);
+        return taken;
+    }
+
+    private static boolean tryTake(AtomicLong counter, long quantity) {
+        while (true) {
+            long current = counter.get();
+            if (current < quantity) return false;
+            if (counter.compareAndSet(current, current - quantity)) return true;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a fixed number of hashing threads with a bounded queue in front of them, so that a burst of
+ * sign-ins cannot occupy every CPU. The calling request thread waits without using CPU. When the queue is
+ * full the call fails right away with a {@link TooManyRequestsException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private volatile Timer waitTimer;
+    private volatile Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, Duration retryAfter) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, retryAfter);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity,
+                           Duration retryAfter) {
+        this.delegate = delegate;
+        this.strength = strength;
+        this.retryAfter = retryAfter;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Picks the BCrypt cost whose hashing time on this machine is closest to {@code targetLatency} without
+     * exceeding it. Every extra round doubles the time, so one measurement at {@link #MIN_STRENGTH} is
+     * enough. The result is never below {@link #MIN_STRENGTH}.
+     */
+    public static int calibrateStrength(Duration targetLatency) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        // the first runs include class loading and JIT compilation
+        encoder.encode("calibration");
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        long nanos = Math.max(System.nanoTime() - start, 1);
+
+        int extraRounds = (int) Math.floor(Math.log((double) targetLatency.toNanos() / nanos) / Math.log(2));
+        return Math.min(Math.max(MIN_STRENGTH + extraRounds, MIN_STRENGTH), MAX_STRENGTH);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.queue.size", this, BoundedPasswordEncoder::getQueueSize)
+                .description("Password hashes waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("password.hashing.strength", this, BoundedPasswordEncoder::getStrength)
+                .description("BCrypt cost used for new password hashes")
+                .register(registry);
+        waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time a password hash spent queued before a hashing thread picked it up")
+                .register(registry);
+        rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashes refused because the queue was full")
+                .register(registry);
+    }
+
+    private <T> T execute(Callable<T> hashing) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+
+        try {
+            result = executor.submit(() -> {
+                Timer timer = waitTimer;
+                if (timer != null) timer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashing.call();
+            });
+        } catch (RejectedExecutionException ex) {
+            Counter counter = rejectedCounter;
+            if (counter != null) counter.increment();
+            throw new TooManyRequestsException(ExceptionMessages.TOO_MANY_SIGN_INS, retryAfter);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ecommerce.api.config;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +21,7 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final JwtTokenCache jwtTokenCache;
     private final UserDetailsService userDetailsService;
 
     @Override
@@ -28,6 +30,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        VerifiedToken verifiedToken;
         final String userEmail;
 
         if (authHeader ==  null || !authHeader.startsWith("Bearer ")) {
@@ -36,12 +39,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+
+        // verify the signature only the first time a token is seen
+        verifiedToken = jwtTokenCache.get(jwt);
+        if (verifiedToken == null) {
+            try {
+                verifiedToken = jwtService.verify(jwt);
+            } catch (JwtException ex) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            jwtTokenCache.put(jwt, verifiedToken);
+        }
+        userEmail = verifiedToken.subject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(verifiedToken, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
                         null, userDetails.getAuthorities());
 
@@ -0,0 +1,77 @@
+package com.example.ecommerce.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Size-bounded cache of tokens whose signature has already been verified, so that clients repeating the same
+ * bearer token skip the HMAC check and claim parsing. Entries are keyed by a SHA-256 digest of the token, so
+ * raw tokens are never kept in memory, and expire exactly when the token does.
+ */
+public class JwtTokenCache implements MeterBinder {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public JwtTokenCache(boolean enabled, long maximumSize) {
+        this.cache = enabled ? Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build() : null;
+    }
+
+    public VerifiedToken get(String token) {
+        if (cache == null) return null;
+
+        return cache.getIfPresent(digest(token));
+    }
+
+    public void put(String token, VerifiedToken verifiedToken) {
+        if (cache == null || verifiedToken.isExpired()) return;
+
+        cache.put(digest(token), verifiedToken);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) CaffeineCacheMetrics.monitor(registry, cache, "jwtTokens");
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ecommerce.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Currency;
+
+/**
+ * All amounts are stored as {@code long} minor units (cents for EUR) of the single store currency.
+ */
+@ConfigurationProperties(prefix = "application.money")
+@Getter
+@Setter
+public class MoneyProperties {
+    private Currency currency = Currency.getInstance("EUR");
+}
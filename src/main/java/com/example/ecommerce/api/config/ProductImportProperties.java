@@ -0,0 +1,17 @@
+package com.example.ecommerce.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bulk product imports insert valid rows in JDBC batches of {@code batchSize} and report at most
+ * {@code maxReportedErrors} rejected rows.
+ */
+@ConfigurationProperties(prefix = "application.products.import")
+@Getter
+@Setter
+public class ProductImportProperties {
+    private int batchSize = 1000;
+    private int maxReportedErrors = 1000;
+}
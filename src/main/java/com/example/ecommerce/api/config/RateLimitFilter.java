@@ -0,0 +1,81 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.exception.ErrorResponse;
+import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles requests per client and route group before they reach a controller. Runs right after
+ * {@link JwtAuthFilter}, so authenticated clients are keyed by their user name (the JWT subject) and
+ * everyone else by remote address. Behind a proxy the remote address is the client's from
+ * {@code X-Forwarded-For}, see {@code server.forward-headers-strategy}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String group = routeGroup(request.getRequestURI().substring(request.getContextPath().length()));
+
+        if (group != null) {
+            long waitNanos = rateLimiter.tryAcquire(group, clientKey(request));
+
+            if (waitNanos > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        Long.toString(Math.max(TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999), 1)));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(),
+                        new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), ExceptionMessages.TOO_MANY_REQUESTS));
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    static String routeGroup(String path) {
+        if (path.startsWith("/api/v1/products")) return "catalog";
+        if (path.startsWith("/api/v1/cart")) return "cart";
+        if (path.startsWith("/api/v1/orders")) return "orders";
+        if (path.equals("/api/v1/signIn") || path.equals("/api/v1/signUp")) return "auth";
+        return null;
+    }
+
+    // user names are email addresses, so they never collide with an IP address;
+    // a principal without a name is throttled by address like an anonymous client
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                && StringUtils.hasText(authentication.getName())) {
+            return authentication.getName();
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token bucket limits per route group ({@code catalog}, {@code cart}, {@code orders}, {@code auth}). A client
+ * may send {@code capacity} requests at once and then {@code refillPerSecond} requests per second. Groups
+ * without a limit are not throttled.
+ */
+@ConfigurationProperties(prefix = "application.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private long maximumClients = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Map<String, Limit> groups = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private long capacity;
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ecommerce.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets for each route group. Each bucket is a single {@code long}: the time at which it
+ * will be full again (the generic cell rate algorithm). Admitting a request is one compare-and-set, with no
+ * lock and, once the client has a bucket, no allocation. Buckets of idle clients are evicted after
+ * {@code idleTimeout}, and at most {@code maximumClients} are kept per group.
+ */
+public class RateLimiter {
+
+    private final Map<String, Group> groups = new HashMap<>();
+
+    public RateLimiter(RateLimitProperties properties) {
+        if (!properties.isEnabled()) return;
+
+        properties.getGroups().forEach((name, limit) -> groups.put(name, new Group(limit.getCapacity(),
+                limit.getRefillPerSecond(), properties.getMaximumClients(), properties.getIdleTimeout())));
+    }
+
+    /**
+     * @return 0 when the request is admitted, otherwise the nanoseconds until the client may try again
+     */
+    public long tryAcquire(String group, String client) {
+        return tryAcquire(group, client, System.nanoTime());
+    }
+
+    long tryAcquire(String group, String client, long now) {
+        Group limits = groups.get(group);
+        if (limits == null) return 0;
+
+        return limits.tryAcquire(client, now);
+    }
+
+    private static final class Group {
+        // time one token takes to refill, and the time a full bucket represents
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final Cache<String, AtomicLong> buckets;
+
+        Group(long capacity, double refillPerSecond, long maximumClients, Duration idleTimeout) {
+            this.emissionIntervalNanos = (long) (1_000_000_000 / refillPerSecond);
+            this.burstNanos = emissionIntervalNanos * capacity;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumClients)
+                    .expireAfterAccess(idleTimeout)
+                    .build();
+        }
+
+        long tryAcquire(String client, long now) {
+            AtomicLong bucket = buckets.getIfPresent(client);
+            if (bucket == null) bucket = buckets.get(client, key -> new AtomicLong(now));
+
+            while (true) {
+                long fullAt = bucket.get();
+                // nanoTime values are only comparable by their difference
+                long newFullAt = (fullAt - now > 0 ? fullAt : now) + emissionIntervalNanos;
+                long waitNanos = newFullAt - now - burstNanos;
+
+                if (waitNanos > 0) return waitNanos;
+                if (bucket.compareAndSet(fullAt, newFullAt)) return 0;
+            }
+        }
+    }
+}
@@ -8,7 +8,9 @@ import com.example.ecommerce.api.repository.CartRepository;
 import com.example.ecommerce.api.repository.ProductRepository;
 import com.example.ecommerce.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,29 +19,48 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final UserRepository userRepository;
 
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public UserDetailsService userDetailsService(UserPrincipalCache userPrincipalCache) {
+        return username -> userPrincipalCache.get(username, email -> userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public UserPrincipalCache userPrincipalCache(@Value("${application.security.principal-cache.ttl:5m}") Duration ttl,
+                                                 @Value("${application.security.principal-cache.maximum-size:10000}") long maximumSize) {
+        return new UserPrincipalCache(ttl, maximumSize);
+    }
+
+    @Bean
+    public JwtTokenCache jwtTokenCache(@Value("${application.security.jwt.cache.enabled:false}") boolean enabled,
+                                       @Value("${application.security.jwt.cache.maximum-size:10000}") long maximumSize) {
+        return new JwtTokenCache(enabled, maximumSize);
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties rateLimitProperties) {
+        return new RateLimiter(rateLimitProperties);
+    }
+
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -48,9 +69,16 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(@Value("${application.security.password-hashing.strength:0}") int strength,
+                                                  @Value("${application.security.password-hashing.target-latency:100ms}") Duration targetLatency,
+                                                  @Value("${application.security.password-hashing.threads:0}") int threads,
+                                                  @Value("${application.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${application.security.password-hashing.retry-after:1s}") Duration retryAfter) {
+        return new BoundedPasswordEncoder(
+                strength > 0 ? strength : BoundedPasswordEncoder.calibrateStrength(targetLatency),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, retryAfter);
     }
 
 }
@@ -0,0 +1,59 @@
+package com.example.ecommerce.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call to a service interface method as {@code service.calls}, tagged with the service, the
+ * method and the exception it threw ({@code none} on success). The timer for a successful call is resolved
+ * once per method and cached, so the common path only reads {@link System#nanoTime()} and records.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "service.calls";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.example.ecommerce.api.service.interfaces.I*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+
+        try {
+            Object result = joinPoint.proceed();
+            Timer timer = timers.get(method);
+            if (timer == null) timer = timers.computeIfAbsent(method, key -> timer(joinPoint.getTarget(), key, "none"));
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            timer(joinPoint.getTarget(), method, ex.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    // tagged with the target class, as the method may be declared on the interface behind a JDK proxy
+    private Timer timer(Object service, Method method, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Service method calls")
+                .tag("service", AopUtils.getTargetClass(service).getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.ecommerce.api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records the SQL statements of each request, outside the security filters so principal lookups count too.
+ * The totals go into a {@code Server-Timing} header, added just before the body is written, and a warning
+ * is logged when a request runs too many statements, takes too long in the database, or repeats the same
+ * statement shape. The recording is left on the {@link #STATS_ATTRIBUTE} request attribute for tests.
+ * <p>
+ * Work done after the response has been handed to another thread, such as the streamed product export,
+ * is not recorded.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "application.sql-statements.enabled", havingValue = "true")
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = SqlStatementStats.class.getName();
+
+    private final int maxStatements;
+    private final Duration maxDuration;
+    private final int repeatedStatementThreshold;
+
+    public SqlStatementFilter(@Value("${application.sql-statements.max-statements}") int maxStatements,
+                              @Value("${application.sql-statements.max-duration}") Duration maxDuration,
+                              @Value("${application.sql-statements.repeated-statement-threshold}") int repeatedStatementThreshold) {
+        this.maxStatements = maxStatements;
+        this.maxDuration = maxDuration;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, stats);
+
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            SqlStatementStats.stop();
+            timedResponse.addServerTiming();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        Map<String, Integer> repeated = stats.getRepeatedStatements(repeatedStatementThreshold);
+
+        if (stats.getStatementCount() > maxStatements || stats.getTotalTime().compareTo(maxDuration) > 0
+                || !repeated.isEmpty()) {
+            log.warn("{} {} ran {} SQL statements in {} ms, repeated statements: {}", request.getMethod(),
+                    request.getRequestURI(), stats.getStatementCount(), stats.getTotalTime().toMillis(), repeated);
+        }
+    }
+
+    // headers can only be added until the body starts, so the timing goes in right before that
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementStats stats;
+        private boolean timingAdded;
+
+        ServerTimingResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        void addServerTiming() {
+            if (timingAdded || isCommitted()) return;
+
+            timingAdded = true;
+            addHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d statements\"",
+                    stats.getTotalTime().toNanos() / 1_000_000.0, stats.getStatementCount()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ecommerce.api.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statements executed on the current thread while recording, with their total time and how often each
+ * statement shape ran. The same shape running many times in one request is the usual sign of an N+1 query.
+ * Recording is started and stopped by {@link SqlStatementFilter} and fed by
+ * {@link StatementCountingDataSource}.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long totalNanos;
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void record(String statementShape, long nanos) {
+        statementCount++;
+        totalNanos += nanos;
+        statementShapes.merge(statementShape, 1, Integer::sum);
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public Duration getTotalTime() {
+        return Duration.ofNanos(totalNanos);
+    }
+
+    /**
+     * @return the statement shapes that ran at least {@code threshold} times, with their counts
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statementShapes.forEach((shape, count) -> {
+            if (count >= threshold) repeated.put(shape, count);
+        });
+        return repeated;
+    }
+}
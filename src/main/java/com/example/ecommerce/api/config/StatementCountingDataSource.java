@@ -0,0 +1,80 @@
+package com.example.ecommerce.api.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Records every statement executed while {@link SqlStatementStats} is recording on the calling thread.
+ * Statements created outside of a recording, such as those of scheduled jobs, are handed out unwrapped.
+ * A batch counts as one statement, since it is one round trip.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    // string and numeric literals, so plain statements that differ only in their values share a shape
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+
+                    // prepareStatement and prepareCall take the SQL first, createStatement takes none
+                    if (result instanceof Statement statement && SqlStatementStats.current() != null) {
+                        String preparedSql = args != null && args[0] instanceof String sql ? sql : null;
+                        return counting(statement, preparedSql, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private static Statement counting(Statement statement, String preparedSql, Class<?> statementType) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) return invoke(statement, method, args);
+
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        SqlStatementStats stats = SqlStatementStats.current();
+                        if (stats != null) stats.record(shape(preparedSql, method.getName(), args), System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static String shape(String preparedSql, String methodName, Object[] args) {
+        if (preparedSql != null) return preparedSql;
+        if (args != null && args[0] instanceof String sql) return LITERALS.matcher(sql).replaceAll("?");
+        return methodName;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Keeps recently authenticated users in memory so that authenticated requests do not select the user row
+ * every time. Entries live at most {@code ttl} and are evicted as soon as the user row changes.
+ */
+public class UserPrincipalCache implements MeterBinder {
+
+    private final Cache<String, User> cache;
+
+    public UserPrincipalCache(Duration ttl, long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public User get(String email, Function<String, User> loader) {
+        // not cache.get(email, loader): that runs the query under a map lock, which pins a virtual thread to
+        // its carrier while it waits for a connection; concurrent misses for one user may both load it
+        User user = cache.getIfPresent(email);
+        if (user == null) {
+            user = loader.apply(email);
+            cache.put(email, user);
+        }
+        return user;
+    }
+
+    // keyed by id rather than email so that a changed email address evicts the old entry as well
+    public void evict(Long userId) {
+        cache.asMap().values().removeIf(user -> Objects.equals(user.getId(), userId));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userPrincipals");
+    }
+}
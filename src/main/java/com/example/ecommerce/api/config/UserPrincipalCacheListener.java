@@ -0,0 +1,38 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts cached principals whenever a user row is updated (e.g. role or password change) or removed.
+ */
+public class UserPrincipalCacheListener {
+
+    private final ObjectProvider<UserPrincipalCache> userPrincipalCache;
+
+    public UserPrincipalCacheListener(ObjectProvider<UserPrincipalCache> userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userPrincipalCache.ifAvailable(cache -> {
+            cache.evict(user.getId());
+
+            // evict again once committed, a concurrent request may have cached the old row in the meantime
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        cache.evict(user.getId());
+                    }
+                });
+            }
+        });
+    }
+}
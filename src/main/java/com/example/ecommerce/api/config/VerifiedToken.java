@@ -0,0 +1,23 @@
+package com.example.ecommerce.api.config;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * The parts of a signature-checked JWT that are needed to authenticate a request.
+ * <p>
+ * Authorities are not part of it: tokens issued by {@link JwtService} carry no role claim, the role is read
+ * from the user row. The request principal is that user anyway, served from {@link UserPrincipalCache},
+ * which is evicted when the row changes, so a role change applies at once instead of when the token expires.
+ */
+public record VerifiedToken(String subject, Instant expiresAt) {
+
+    public static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration().toInstant());
+    }
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ecommerce.api.controller;
 
 import com.example.ecommerce.api.mapstruct.dto.cart.AddToCartDto;
 import com.example.ecommerce.api.mapstruct.dto.cart.CartDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.UpdateCartDto;
 import com.example.ecommerce.api.entity.User;
 import com.example.ecommerce.api.service.interfaces.ICartService;
 import jakarta.validation.Valid;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 
@@ -30,11 +32,20 @@ public class CartController {
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public CartDto getCartItems(@AuthenticationPrincipal User user) {
+    public CartDto getCartItems(@AuthenticationPrincipal User user, WebRequest request) {
+        // the version is read before the cart, so a concurrent change can only make the ETag stale, never ahead
+        if (request.checkNotModified(cartService.getCartVersion(user.getId()))) return null;
+
         return cartService.getAllCartProducts(user.getId());
     }
 
+    @PatchMapping
+    @ResponseStatus(HttpStatus.OK)
+    public CartDto updateCart(@Valid @RequestBody UpdateCartDto updateCartDto,
+                              @AuthenticationPrincipal User user) {
+        return cartService.updateCart(updateCartDto, user);
+    }
+
     @PutMapping("/{cartId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void updateCartItem(@Valid @RequestBody AddToCartDto addToCartDto,
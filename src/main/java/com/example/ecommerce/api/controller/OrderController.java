@@ -1,9 +1,11 @@
 package com.example.ecommerce.api.controller;
 
-import com.example.ecommerce.api.mapstruct.dto.order.OrderDto;
 import com.example.ecommerce.api.mapstruct.dto.order.OrderItemDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageRequestDto;
 import com.example.ecommerce.api.entity.User;
 import com.example.ecommerce.api.service.interfaces.IOrderService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,8 +25,9 @@ public class OrderController {
     private final IOrderService orderService;
 
     @GetMapping
-    public List<OrderDto> getAllOrders(@AuthenticationPrincipal User user) {
-        return orderService.getAllOrders(user);
+    public OrderPageDto getAllOrders(@AuthenticationPrincipal User user,
+                                       @Valid OrderPageRequestDto pageRequest) {
+        return orderService.getAllOrders(user, pageRequest);
     }
 
     @GetMapping("/{orderId}")
@@ -1,19 +1,31 @@
 package com.example.ecommerce.api.controller;
 
+import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.PreconditionFailedException;
 import com.example.ecommerce.api.mapstruct.dto.product.AddProductDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportResultDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.UpdateProductDto;
 import com.example.ecommerce.api.service.interfaces.IProductService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -23,29 +35,59 @@ public class ProductController {
 
     private final IProductService productService;
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     @PostMapping
     public ResponseEntity<Void> createProduct(@Valid @RequestBody AddProductDto addProductDto) {
         long productId = productService.createProduct(addProductDto);
         return ResponseEntity.created(URI.create("/api/v1/products/" + productId)).build();
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ProductImportResultDto importProductsFromJson(InputStream body) throws IOException {
+        return productService.importProductsFromJson(body);
+    }
+
+    @PostMapping(value = "/bulk", consumes = TEXT_CSV_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ProductImportResultDto importProductsFromCsv(InputStream body) throws IOException {
+        return productService.importProductsFromCsv(body);
+    }
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<ProductResponseDto> getProducts() {
-        return productService.getProducts();
+    public ProductPageDto getProducts(@Valid ProductPageRequestDto pageRequest) {
+        return productService.getProducts(pageRequest);
     }
 
-    @GetMapping("/{productId}")
+    @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public ProductResponseDto getProduct(@PositiveOrZero @PathVariable long productId) {
+    public ProductSearchPageDto searchProducts(@Valid ProductSearchRequestDto searchRequest) {
+        return productService.searchProducts(searchRequest);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productService::exportProducts);
+    }
+
+    @GetMapping("/{productId}")
+    public ProductResponseDto getProduct(@PositiveOrZero @PathVariable long productId, WebRequest request) {
+        // answers 304 from the version alone, the product is only loaded when the client's copy is stale
+        if (request.checkNotModified(Long.toString(productService.getProductVersion(productId)))) return null;
+
         return productService.getProduct(productId);
     }
 
     @PutMapping("/{productId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void updateProduct(@PositiveOrZero @PathVariable long productId,
-                                              @Valid @RequestBody UpdateProductDto product) {
-        productService.updateProduct(productId, product);
+                              @Valid @RequestBody UpdateProductDto product,
+                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        productService.updateProduct(productId, product, parseVersion(ifMatch));
     }
 
     @DeleteMapping("/{productId}")
@@ -54,7 +96,19 @@ public class ProductController {
         productService.removeProduct(productId);
     }
 
+    // If-Match has to carry the strong ETag handed out by getProduct, anything else can never match
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
 
+        String eTag = ifMatch.trim();
+        if (eTag.length() < 3 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            throw new PreconditionFailedException(ExceptionMessages.PRODUCT_MODIFIED);
+        }
 
-
+        try {
+            return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException(ExceptionMessages.PRODUCT_MODIFIED);
+        }
+    }
 }
@@ -2,10 +2,16 @@ package com.example.ecommerce.api.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "cart_user_id_date_created_idx", columnList = "user_id, date_created")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "cart_user_id_product_id_key", columnNames = {"user_id", "product_id"})
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -25,10 +31,14 @@ public class Cart {
             referencedColumnName = "id"
     )
     private Product product;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "user_id",
             referencedColumnName = "id"
     )
     private User user;
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
 }
@@ -8,7 +8,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "_order")
+@Table(name = "_order", indexes = {
+        @Index(name = "order_user_id_date_created_id_idx", columnList = "user_id, date_created DESC, id DESC")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -16,20 +18,27 @@ import java.util.List;
 @ToString
 @Builder
 public class Order {
+    // sequence ids (allocated 50 at a time) let Hibernate batch inserts, IDENTITY would disable batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "_order_seq", allocationSize = 50)
     private Long id;
     @Column(name = "date_created", nullable = false)
     private LocalDateTime dateCreated;
+    // minor units of currency
     @Column(name = "total_price", nullable = false)
-    private double totalPrice;
-    @ManyToOne()
+    private long totalPrice;
+    @Column(nullable = false, length = 3)
+    private String currency;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "user_id",
             referencedColumnName = "id"
     )
+    @ToString.Exclude
     private User user;
-    @OneToMany(mappedBy = "order", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @ToString.Exclude
     private List<OrderItem> orderItems;
 
     public void addOderItem(OrderItem orderItem) {
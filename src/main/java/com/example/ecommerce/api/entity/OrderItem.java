@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_item", uniqueConstraints = {
+@Table(name = "order_item", indexes = {
+        @Index(name = "order_item_order_id_idx", columnList = "order_id")
+}, uniqueConstraints = {
         @UniqueConstraint(columnNames = {"product_id", "order_id"})
 })
 @NoArgsConstructor
@@ -18,22 +20,31 @@ import java.time.LocalDateTime;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private long quantity;
+    // minor units of the order's currency
     @Column(nullable = false)
-    private double price;
-    @ManyToOne
+    private long price;
+    // false while the quantity is only taken from the hot product counters, see HotSkuInventory;
+    // the partial index the flush reads is declared in PostgreSqlIndexes
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean stockApplied = true;
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "product_id",
             referencedColumnName = "id"
     )
+    @ToString.Exclude
     private Product product;
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(
             name = "order_id",
             referencedColumnName = "id"
     )
+    @ToString.Exclude
     private Order order;
 }
@@ -0,0 +1,54 @@
+package com.example.ecommerce.api.entity;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.model.relational.AuxiliaryDatabaseObject;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+
+/**
+ * PostgreSQL indexes that {@link jakarta.persistence.Index} cannot express (partial and GIN indexes), added
+ * to the schema Hibernate generates so it matches the Flyway migrations. Registered through
+ * {@code hibernate.metadata_builder_contributor}; other databases, such as H2 in tests, skip them.
+ */
+public class PostgreSqlIndexes implements MetadataBuilderContributor {
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        // V007: the hot product flush only reads the few order items not yet applied to product stock
+        metadataBuilder.applyAuxiliaryDatabaseObject(new PostgreSqlIndex("order_item_stock_pending_idx",
+                "ON order_item (product_id) WHERE stock_applied = FALSE"));
+        // V012: full-text product search
+        metadataBuilder.applyAuxiliaryDatabaseObject(new PostgreSqlIndex("product_search_vector_idx",
+                "ON product USING GIN (search_vector)"));
+    }
+
+    private record PostgreSqlIndex(String name, String definition) implements AuxiliaryDatabaseObject {
+
+        @Override
+        public String getExportIdentifier() {
+            return name;
+        }
+
+        @Override
+        public boolean appliesToDialect(Dialect dialect) {
+            return dialect instanceof PostgreSQLDialect;
+        }
+
+        @Override
+        public boolean beforeTablesOnCreation() {
+            return false;
+        }
+
+        @Override
+        public String[] sqlCreateStrings(SqlStringGenerationContext context) {
+            return new String[]{"CREATE INDEX " + name + " " + definition};
+        }
+
+        @Override
+        public String[] sqlDropStrings(SqlStringGenerationContext context) {
+            return new String[]{"DROP INDEX IF EXISTS " + name};
+        }
+    }
+}
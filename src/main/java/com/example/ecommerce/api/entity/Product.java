@@ -2,6 +2,7 @@ package com.example.ecommerce.api.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Objects;
 
@@ -22,10 +23,27 @@ public class Product {
     private String description;
     @Column(name = "imageUrl")
     private String imageUrl;
+    // minor units of currency
     @Column(nullable = false)
-    private double price;
+    private long price;
+    @Column(nullable = false, length = 3)
+    private String currency;
     @Column(name = "stock_quantity", nullable = false)
     private long stockQuantity;
+    // bumped on every update through JPA, stock changes at checkout do not touch it
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+    // kept up to date by PostgreSQL and only read by the native search query, same definition as V012;
+    // the GIN index over it is declared in PostgreSqlIndexes
+    @Column(name = "search_vector", insertable = false, updatable = false, columnDefinition = """
+            tsvector GENERATED ALWAYS AS (
+                setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+                setweight(to_tsvector('english', coalesce(description, '')), 'B')
+            ) STORED""")
+    @ToString.Exclude
+    private String searchVector;
 
 
     @Override
@@ -33,13 +51,14 @@ public class Product {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Product product = (Product) o;
-        return Double.compare(product.price, price) == 0 && stockQuantity == product.stockQuantity &&
+        return price == product.price && stockQuantity == product.stockQuantity &&
+                Objects.equals(currency, product.currency) &&
                 Objects.equals(id, product.id) && Objects.equals(name, product.name) &&
                 Objects.equals(description, product.description) && Objects.equals(imageUrl, product.imageUrl);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, description, imageUrl, price, stockQuantity);
+        return Objects.hash(id, name, description, imageUrl, price, currency, stockQuantity);
     }
 }
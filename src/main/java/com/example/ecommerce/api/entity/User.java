@@ -1,6 +1,7 @@
 package com.example.ecommerce.api.entity;
 
 
+import com.example.ecommerce.api.config.UserPrincipalCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,6 +14,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "_user")
+@EntityListeners(UserPrincipalCacheListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
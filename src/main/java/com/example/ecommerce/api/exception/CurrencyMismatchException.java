@@ -0,0 +1,7 @@
+package com.example.ecommerce.api.exception;
+
+public class CurrencyMismatchException extends RuntimeException{
+    public CurrencyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -8,4 +8,14 @@ public class ExceptionMessages {
     public static final String CART_ITEM_NOT_FOUND = "Cart item not found.";
     public static final String ORDER_NOT_FOUND = "Order not found.";
     public static final String CART_IS_EMPTY = "Cart is empty.";
+    public static final String INVALID_CURSOR = "Invalid cursor.";
+    public static final String INVALID_IMPORT = "Import could not be read, expected a JSON array or CSV with a header row.";
+    public static final String MALFORMED_ROW = "Row could not be read.";
+    public static final String CURRENCY_MISMATCH = "Cart contains products priced in another currency.";
+    public static final String INSUFFICIENT_STOCK = "Not enough products in stock.";
+    public static final String PRODUCT_MODIFIED = "Product was modified since it was read.";
+    public static final String HOT_PRODUCT_STOCK = "Product is in hot product mode, it cannot be updated until the mode is turned off.";
+    public static final String TOO_MANY_SIGN_INS = "Too many sign-in attempts at the moment, try again later.";
+    public static final String TOO_MANY_REQUESTS = "Too many requests, try again later.";
+    public static final String CONCURRENT_MODIFICATION = "The resource was modified concurrently, reload it and try again.";
 }
@@ -2,10 +2,12 @@ package com.example.ecommerce.api.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -38,6 +40,45 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return buildErrorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT, request);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Object> handleInsufficientStockException(InsufficientStockException ex,
+                                                                   WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(CurrencyMismatchException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Object> handleCurrencyMismatchException(CurrencyMismatchException ex,
+                                                                  WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex,
+                                                                 WebRequest request) {
+        return buildErrorResponse(ex, ExceptionMessages.CONCURRENT_MODIFICATION, HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException ex,
+                                                                    WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.PRECONDITION_FAILED, request);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<Object> handleTooManyRequestsException(TooManyRequestsException ex,
+                                                                 WebRequest request) {
+        ResponseEntity<Object> response = buildErrorResponse(ex, ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS, request);
+
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(ex.getRetryAfter().toSeconds(), 1)))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(ProductNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<Object> handleProductNotFoundException(ProductNotFoundException ex,
@@ -66,21 +107,27 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return buildErrorResponse(ex, ex.getMessage(), HttpStatus.BAD_REQUEST, request);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException ex,
+                                                               WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Object> handleInvalidImportException(InvalidImportException ex,
+                                                               WebRequest request) {
+        return buildErrorResponse(ex, ex.getMessage(), HttpStatus.BAD_REQUEST, request);
+    }
+
     @Override
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
                                                                   HttpHeaders headers,
                                                                   HttpStatusCode status,
                                                                   WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY.value(),
-                "Validation error. Check 'errors' field for details.");
-
-
-        for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
-            errorResponse.addValidationError(fieldError.getField(), fieldError.getDefaultMessage());
-        }
-
-        return ResponseEntity.unprocessableEntity().body(errorResponse);
+        return buildValidationErrorResponse(ex);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -104,9 +151,26 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                                                              HttpHeaders headers,
                                                              HttpStatusCode statusCode,
                                                              WebRequest request) {
+        // query parameters bound to an object (e.g. paging requests) still fail with a plain BindException in
+        // this Spring version and end up here; they are validated like request bodies
+        if (ex instanceof BindException bindException) {
+            return buildValidationErrorResponse(bindException);
+        }
         return buildErrorResponse(ex, ex.getMessage(), statusCode, request);
     }
 
+    private ResponseEntity<Object> buildValidationErrorResponse(BindException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "Validation error. Check 'errors' field for details.");
+
+
+        for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
+            errorResponse.addValidationError(fieldError.getField(), fieldError.getDefaultMessage());
+        }
+
+        return ResponseEntity.unprocessableEntity().body(errorResponse);
+    }
+
     private ResponseEntity<Object> buildErrorResponse(Exception ex,
                                                       String message,
                                                       HttpStatusCode status,
@@ -0,0 +1,7 @@
+package com.example.ecommerce.api.exception;
+
+public class InvalidImportException extends RuntimeException{
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
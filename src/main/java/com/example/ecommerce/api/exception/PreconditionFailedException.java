@@ -0,0 +1,7 @@
+package com.example.ecommerce.api.exception;
+
+public class PreconditionFailedException extends RuntimeException{
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -14,7 +14,9 @@ import java.util.List;
 @Builder
 public class CartDto {
     private List<CartItemDto> cartItems;
-    private double totalCost;
+    // minor units of currency
+    private long totalCost;
+    private String currency;
 
     public void addCartItem(CartItemDto cartItemDto) {
         if (cartItems == null) {
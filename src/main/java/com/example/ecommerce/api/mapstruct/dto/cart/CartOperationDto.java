@@ -0,0 +1,26 @@
+package com.example.ecommerce.api.mapstruct.dto.cart;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartOperationDto {
+    @NotNull
+    private Operation op;
+    @PositiveOrZero
+    private long productId;
+    // ignored for REMOVE, setting a quantity of 0 removes the product as well
+    @PositiveOrZero
+    private long quantity;
+
+    public enum Operation {
+        ADD, SET, REMOVE
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ecommerce.api.mapstruct.dto.cart;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpdateCartDto {
+    public static final int MAX_OPERATIONS = 200;
+
+    // applied in order, all or nothing
+    @NotEmpty
+    @Size(max = MAX_OPERATIONS)
+    private List<@Valid @NotNull CartOperationDto> operations;
+}
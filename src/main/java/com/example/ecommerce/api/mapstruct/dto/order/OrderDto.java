@@ -14,5 +14,7 @@ import java.time.LocalDateTime;
 public class OrderDto {
     private long id;
     private LocalDateTime dateCreated;
-    private double totalPrice;
+    // minor units of currency
+    private long totalPrice;
+    private String currency;
 }
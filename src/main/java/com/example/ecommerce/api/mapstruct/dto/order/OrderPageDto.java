@@ -0,0 +1,18 @@
+package com.example.ecommerce.api.mapstruct.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageDto {
+    private List<OrderDto> orders;
+    // null when there are no more orders to fetch
+    private String nextCursor;
+}
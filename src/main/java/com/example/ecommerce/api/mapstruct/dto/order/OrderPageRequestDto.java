@@ -0,0 +1,32 @@
+package com.example.ecommerce.api.mapstruct.dto.order;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageRequestDto {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // opaque token returned as 'nextCursor' by the previous page
+    private String cursor;
+    @Min(1)
+    @Max(MAX_PAGE_SIZE)
+    @Builder.Default
+    private int size = DEFAULT_PAGE_SIZE;
+    // both dates are inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
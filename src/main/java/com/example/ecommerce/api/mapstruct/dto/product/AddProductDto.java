@@ -2,6 +2,7 @@ package com.example.ecommerce.api.mapstruct.dto.product;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,14 +13,19 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class AddProductDto {
+    // sizes match the product columns, so a bulk import rejects the row instead of failing the insert
     @NotBlank
+    @Size(max = 50)
     private String name;
     @NotBlank
+    @Size(max = 255)
     private String description;
     @NotBlank
+    @Size(max = 255)
     private String imageUrl;
     @PositiveOrZero
     private long stockQuantity;
+    // minor units of the store currency
     @PositiveOrZero
-    private double price;
+    private long price;
 }
@@ -0,0 +1,24 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rejects a product page request whose {@code minPrice} is above its {@code maxPrice}, which could only ever
+ * return an empty page. The violation is reported on {@code maxPrice}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = PriceRangeValidator.class)
+public @interface PriceRange {
+    String message() default "must be greater than or equal to minPrice";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
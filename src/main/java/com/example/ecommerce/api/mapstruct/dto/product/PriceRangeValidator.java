@@ -0,0 +1,22 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PriceRangeValidator implements ConstraintValidator<PriceRange, ProductPageRequestDto> {
+
+    @Override
+    public boolean isValid(ProductPageRequestDto pageRequest, ConstraintValidatorContext context) {
+        // an open end never conflicts with the other one
+        if (pageRequest.getMinPrice() == null || pageRequest.getMaxPrice() == null
+                || pageRequest.getMinPrice() <= pageRequest.getMaxPrice()) {
+            return true;
+        }
+
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+                .addPropertyNode("maxPrice")
+                .addConstraintViolation();
+        return false;
+    }
+}
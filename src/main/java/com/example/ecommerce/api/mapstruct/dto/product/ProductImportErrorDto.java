@@ -0,0 +1,18 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportErrorDto {
+    // 1-based position of the product in the import, not counting the CSV header
+    private long row;
+    // null when the row as a whole could not be read
+    private String field;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResultDto {
+    private long imported;
+    private long rejected;
+    // capped at application.products.import.max-reported-errors, rejected holds the full count
+    private List<ProductImportErrorDto> errors;
+}
@@ -0,0 +1,18 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPageDto {
+    private List<ProductResponseDto> products;
+    // null when there are no more products to fetch
+    private String nextCursor;
+}
@@ -0,0 +1,32 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@PriceRange
+public class ProductPageRequestDto {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // opaque token returned as 'nextCursor' by the previous page
+    private String cursor;
+    @Min(1)
+    @Max(MAX_PAGE_SIZE)
+    @Builder.Default
+    private int size = DEFAULT_PAGE_SIZE;
+    // minor units of the store currency
+    @PositiveOrZero
+    private Long minPrice;
+    @PositiveOrZero
+    private Long maxPrice;
+    private boolean inStock;
+}
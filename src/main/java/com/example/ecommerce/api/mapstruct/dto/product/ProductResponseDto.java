@@ -1,5 +1,6 @@
 package com.example.ecommerce.api.mapstruct.dto.product;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
@@ -17,6 +18,11 @@ public class ProductResponseDto {
     private String description;
     @NotBlank
     private String imageUrl;
+    // minor units of currency
     @PositiveOrZero
-    private double price;
+    private long price;
+    private String currency;
+    // sent as the ETag header rather than in the body
+    @JsonIgnore
+    private long version;
 }
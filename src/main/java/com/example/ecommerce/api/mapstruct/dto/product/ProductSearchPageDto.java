@@ -0,0 +1,19 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchPageDto {
+    // most relevant first
+    private List<ProductResponseDto> products;
+    // null when there are no more matches
+    private Integer nextPage;
+}
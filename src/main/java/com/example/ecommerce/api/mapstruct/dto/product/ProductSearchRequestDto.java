@@ -0,0 +1,28 @@
+package com.example.ecommerce.api.mapstruct.dto.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchRequestDto {
+    // web search syntax: quoted phrases, OR and -excluded words
+    @NotBlank
+    @Size(max = 200)
+    private String q;
+    @PositiveOrZero
+    private int page;
+    @Min(1)
+    @Max(ProductPageRequestDto.MAX_PAGE_SIZE)
+    @Builder.Default
+    private int size = ProductPageRequestDto.DEFAULT_PAGE_SIZE;
+}
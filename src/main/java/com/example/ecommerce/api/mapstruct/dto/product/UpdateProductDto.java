@@ -22,6 +22,7 @@ public class UpdateProductDto {
     private String imageUrl;
     @PositiveOrZero
     private long stockQuantity;
+    // minor units of the store currency
     @PositiveOrZero
-    private double price;
+    private long price;
 }
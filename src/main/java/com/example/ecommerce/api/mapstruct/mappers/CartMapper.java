@@ -2,7 +2,9 @@ package com.example.ecommerce.api.mapstruct.mappers;
 
 import com.example.ecommerce.api.entity.Cart;
 import com.example.ecommerce.api.mapstruct.dto.cart.CartItemDto;
+import com.example.ecommerce.api.repository.CartItemView;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 
 @Mapper
@@ -10,4 +12,12 @@ public interface CartMapper {
 
     CartItemDto mapCartItemToDto(Cart cart);
 
+    @Mapping(target = "product.id", source = "productId")
+    @Mapping(target = "product.name", source = "productName")
+    @Mapping(target = "product.description", source = "productDescription")
+    @Mapping(target = "product.imageUrl", source = "productImageUrl")
+    @Mapping(target = "product.price", source = "productPrice")
+    @Mapping(target = "product.currency", source = "productCurrency")
+    CartItemDto mapCartItemViewToDto(CartItemView cartItemView);
+
 }
@@ -4,12 +4,22 @@ import com.example.ecommerce.api.mapstruct.dto.product.AddProductDto;
 import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
 import com.example.ecommerce.api.entity.Product;
 import com.example.ecommerce.api.mapstruct.dto.product.UpdateProductDto;
+import com.example.ecommerce.api.repository.ProductSearchView;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface ProductMapper {
 
     ProductResponseDto productToProductDto(Product product);
+    @Mapping(target = "version", ignore = true)
+    ProductResponseDto productSearchViewToDto(ProductSearchView productSearchView);
+    @Mapping(target = "currency", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "searchVector", ignore = true)
     Product addProductDtoToProduct(AddProductDto addProductDto);
+    @Mapping(target = "currency", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "searchVector", ignore = true)
     Product updateProductDtoToProduct(UpdateProductDto updateProductDto);
 }
@@ -0,0 +1,16 @@
+package com.example.ecommerce.api.repository;
+
+/**
+ * One cart line joined with its product, plus the total of the whole cart repeated on every row.
+ */
+public interface CartItemView {
+    long getId();
+    long getQuantity();
+    long getProductId();
+    String getProductName();
+    String getProductDescription();
+    String getProductImageUrl();
+    long getProductPrice();
+    String getProductCurrency();
+    long getTotalCost();
+}
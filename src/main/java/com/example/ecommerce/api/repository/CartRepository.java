@@ -1,19 +1,69 @@
 package com.example.ecommerce.api.repository;
 
 import com.example.ecommerce.api.entity.Cart;
-import com.example.ecommerce.api.entity.Product;
 import com.example.ecommerce.api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartRepository extends JpaRepository<Cart, Long> {
+public interface CartRepository extends JpaRepository<Cart, Long>, CartRepositoryCustom {
 
-    List<Cart> findAllByUser_IdOrderByDateCreatedDesc(long userId);
-    Optional<Cart> findByUserAndProduct(User user, Product product);
-    List<Cart> findAllByUser(User user);
     Optional<Cart> findByIdAndUser(long id, User user);
+
+    // one round trip: a missing product selects no row, and a concurrent add of the same product turns into
+    // an increment on the (user_id, product_id) unique index. Returns nothing when the product does not
+    // exist or does not have enough stock for the resulting quantity.
+    @Query(value = """
+            INSERT INTO cart (user_id, product_id, quantity, date_created)
+            SELECT :userId, p.id, :quantity, :dateCreated
+            FROM product p
+            WHERE p.id = :productId AND p.stock_quantity >= :quantity
+            ON CONFLICT (user_id, product_id) DO UPDATE
+            SET quantity = cart.quantity + EXCLUDED.quantity,
+                date_created = EXCLUDED.date_created,
+                version = cart.version + 1
+            WHERE cart.quantity + EXCLUDED.quantity <=
+                  (SELECT stock_quantity FROM product WHERE id = EXCLUDED.product_id)
+            RETURNING id
+            """, nativeQuery = true)
+    Optional<Long> upsert(@Param("userId") long userId,
+                          @Param("productId") long productId,
+                          @Param("quantity") long quantity,
+                          @Param("dateCreated") LocalDateTime dateCreated);
+
+    // the cart view in one statement: only the columns the response needs, the total as a window aggregate
+    @Query("""
+            SELECT c.id AS id, c.quantity AS quantity,
+                   p.id AS productId, p.name AS productName, p.description AS productDescription,
+                   p.imageUrl AS productImageUrl, p.price AS productPrice, p.currency AS productCurrency,
+                   SUM(p.price * c.quantity) OVER () AS totalCost
+            FROM Cart c JOIN c.product p
+            WHERE c.user.id = :userId
+            ORDER BY c.dateCreated DESC
+            """)
+    List<CartItemView> findCartViewByUserId(@Param("userId") long userId);
+
+    // fingerprint of everything the cart view shows, read from the cart index and the product primary key
+    // without loading any of the text columns
+    @Query(value = """
+            SELECT md5(COALESCE(string_agg(c.id || ':' || c.version || ':' || p.version, ',' ORDER BY c.id), ''))
+            FROM cart c JOIN product p ON p.id = c.product_id
+            WHERE c.user_id = :userId
+            """, nativeQuery = true)
+    String findCartVersionByUserId(@Param("userId") long userId);
+
+    @Query("SELECT c FROM Cart c JOIN FETCH c.product WHERE c.user.id = :userId")
+    List<Cart> findAllWithProductByUserId(@Param("userId") long userId);
+
+    // single bulk statement instead of loading and deleting every cart row
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") long userId);
 }
@@ -0,0 +1,25 @@
+package com.example.ecommerce.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CartRepositoryCustom {
+
+    /**
+     * Sets the cart quantity of each product, adding the product to the cart when needed, as one JDBC batch.
+     *
+     * @return ids of the products that were left untouched because they do not exist or lack the stock
+     */
+    List<Long> setQuantities(long userId, Map<Long, Long> quantitiesByProductId, LocalDateTime dateCreated);
+
+    /**
+     * Adds to the cart quantity of each product, adding the product to the cart when needed, as one JDBC batch.
+     *
+     * @return ids of the products that were left untouched because they do not exist or lack the stock
+     */
+    List<Long> addQuantities(long userId, Map<Long, Long> quantitiesByProductId, LocalDateTime dateCreated);
+
+    void removeProducts(long userId, Collection<Long> productIds);
+}
@@ -0,0 +1,89 @@
+package com.example.ecommerce.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CartRepositoryImpl implements CartRepositoryCustom {
+
+    // same shape as CartRepository.upsert, the resulting quantity must not exceed the stock
+    private static final String SET_QUANTITY_SQL = """
+            INSERT INTO cart (user_id, product_id, quantity, date_created)
+            SELECT ?, p.id, ?, ?
+            FROM product p
+            WHERE p.id = ? AND p.stock_quantity >= ?
+            ON CONFLICT (user_id, product_id) DO UPDATE
+            SET quantity = EXCLUDED.quantity,
+                date_created = EXCLUDED.date_created,
+                version = cart.version + 1
+            WHERE EXCLUDED.quantity <= (SELECT stock_quantity FROM product WHERE id = EXCLUDED.product_id)
+            """;
+
+    private static final String ADD_QUANTITY_SQL = """
+            INSERT INTO cart (user_id, product_id, quantity, date_created)
+            SELECT ?, p.id, ?, ?
+            FROM product p
+            WHERE p.id = ? AND p.stock_quantity >= ?
+            ON CONFLICT (user_id, product_id) DO UPDATE
+            SET quantity = cart.quantity + EXCLUDED.quantity,
+                date_created = EXCLUDED.date_created,
+                version = cart.version + 1
+            WHERE cart.quantity + EXCLUDED.quantity <=
+                  (SELECT stock_quantity FROM product WHERE id = EXCLUDED.product_id)
+            """;
+
+    private static final String REMOVE_PRODUCT_SQL = "DELETE FROM cart WHERE user_id = ? AND product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> setQuantities(long userId, Map<Long, Long> quantitiesByProductId, LocalDateTime dateCreated) {
+        return upsert(SET_QUANTITY_SQL, userId, quantitiesByProductId, dateCreated);
+    }
+
+    @Override
+    public List<Long> addQuantities(long userId, Map<Long, Long> quantitiesByProductId, LocalDateTime dateCreated) {
+        return upsert(ADD_QUANTITY_SQL, userId, quantitiesByProductId, dateCreated);
+    }
+
+    @Override
+    public void removeProducts(long userId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+
+        List<Object[]> batchArgs = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            batchArgs.add(new Object[]{userId, productId});
+        }
+
+        jdbcTemplate.batchUpdate(REMOVE_PRODUCT_SQL, batchArgs);
+    }
+
+    private List<Long> upsert(String sql, long userId, Map<Long, Long> quantitiesByProductId,
+                              LocalDateTime dateCreated) {
+        if (quantitiesByProductId.isEmpty()) return List.of();
+
+        Timestamp timestamp = Timestamp.valueOf(dateCreated);
+        List<Long> productIds = new ArrayList<>(quantitiesByProductId.keySet());
+        List<Object[]> batchArgs = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            long quantity = quantitiesByProductId.get(productId);
+            batchArgs.add(new Object[]{userId, quantity, timestamp, productId, quantity});
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(sql, batchArgs);
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) rejected.add(productIds.get(i));
+        }
+
+        return rejected;
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.ecommerce.api.repository;
 
-import com.example.ecommerce.api.entity.Order;
 import com.example.ecommerce.api.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    List<OrderItem> findAllByOrder(Order order);
+
+    // items and their products in one statement; the ownership check needs only the order's user_id column
+    @Query("""
+            SELECT oi FROM OrderItem oi
+            JOIN FETCH oi.product
+            WHERE oi.order.id = :orderId AND oi.order.user.id = :userId
+            ORDER BY oi.id
+            """)
+    List<OrderItem> findAllWithProductByOrderIdAndUserId(@Param("orderId") long orderId,
+                                                         @Param("userId") long userId);
 }
@@ -1,19 +1,33 @@
 package com.example.ecommerce.api.repository;
 
 import com.example.ecommerce.api.entity.Order;
-import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findAllByUserOrderByDateCreatedDesc(User user);
-
-    Optional<Order> findByUserAndId(User user, long id);
-
-
+    // order history only needs the order row itself, items are loaded when a single order is opened.
+    // keyset pagination: the row comparison seeks into the (user_id, date_created DESC, id DESC) index
+    @Query("""
+            SELECT new com.example.ecommerce.api.mapstruct.dto.order.OrderDto(
+                o.id, o.dateCreated, o.totalPrice, o.currency)
+            FROM Order o
+            WHERE o.user.id = :userId
+              AND o.dateCreated >= :from
+              AND (o.dateCreated, o.id) < (:beforeDateCreated, :beforeId)
+            ORDER BY o.dateCreated DESC, o.id DESC
+            """)
+    List<OrderDto> findPageBefore(@Param("userId") long userId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("beforeDateCreated") LocalDateTime beforeDateCreated,
+                                  @Param("beforeId") long beforeId,
+                                  Pageable pageable);
 }
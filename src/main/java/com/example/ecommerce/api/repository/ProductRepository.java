@@ -1,9 +1,105 @@
 package com.example.ecommerce.api.repository;
 
 import com.example.ecommerce.api.entity.Product;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    // keyset pagination: seeks past the last seen id using the primary key index instead of OFFSET
+    @Query("""
+            SELECT new com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto(
+                p.id, p.name, p.description, p.imageUrl, p.price, p.currency, p.version)
+            FROM Product p
+            WHERE p.id > :afterId
+              AND p.price >= :minPrice
+              AND p.price <= :maxPrice
+              AND (:inStock = false OR p.stockQuantity > 0)
+            ORDER BY p.id
+            """)
+    List<ProductResponseDto> findPageAfter(@Param("afterId") long afterId,
+                                           @Param("minPrice") long minPrice,
+                                           @Param("maxPrice") long maxPrice,
+                                           @Param("inStock") boolean inStock,
+                                           Pageable pageable);
+
+    // forward-only cursor over the whole catalog; must be consumed inside a transaction and closed afterwards
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+            SELECT new com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto(
+                p.id, p.name, p.description, p.imageUrl, p.price, p.currency, p.version)
+            FROM Product p
+            ORDER BY p.id
+            """)
+    Stream<ProductResponseDto> streamAll();
+
+    // ranked full-text search through the GIN index on the generated search_vector column (V012); the tsquery
+    // stays inline in the predicate, joined as a function scan it turns the generic plan into a sequential scan
+    @Query(value = """
+            SELECT p.id AS id, p.name AS name, p.description AS description, p.image_url AS imageUrl,
+                   p.price AS price, p.currency AS currency,
+                   ts_rank(p.search_vector, websearch_to_tsquery('english', :query)) AS rank
+            FROM product p
+            WHERE p.search_vector @@ websearch_to_tsquery('english', :query)
+            ORDER BY rank DESC, p.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<ProductSearchView> search(@Param("query") String query,
+                                   @Param("limit") int limit,
+                                   @Param("offset") long offset);
+
+    // writes the product in one statement without loading it first; returns 0 when the product does not
+    // exist or its version is no longer the expected one
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.name = :name, p.description = :description, p.imageUrl = :imageUrl,
+                p.price = :price, p.stockQuantity = :stockQuantity, p.version = p.version + 1
+            WHERE p.id = :productId AND p.version = :expectedVersion
+            """)
+    int updateIfVersionMatches(@Param("productId") long productId,
+                               @Param("expectedVersion") long expectedVersion,
+                               @Param("name") String name,
+                               @Param("description") String description,
+                               @Param("imageUrl") String imageUrl,
+                               @Param("price") long price,
+                               @Param("stockQuantity") long stockQuantity);
+
+    // same as updateIfVersionMatches for clients that did not send If-Match, the last write wins
+    @Modifying
+    @Query("""
+            UPDATE Product p
+            SET p.name = :name, p.description = :description, p.imageUrl = :imageUrl,
+                p.price = :price, p.stockQuantity = :stockQuantity, p.version = p.version + 1
+            WHERE p.id = :productId
+            """)
+    int update(@Param("productId") long productId,
+               @Param("name") String name,
+               @Param("description") String description,
+               @Param("imageUrl") String imageUrl,
+               @Param("price") long price,
+               @Param("stockQuantity") long stockQuantity);
+
+    @Query("SELECT p.version FROM Product p WHERE p.id = :productId")
+    Optional<Long> findVersionById(@Param("productId") long productId);
+}
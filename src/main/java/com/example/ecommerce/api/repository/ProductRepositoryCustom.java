@@ -0,0 +1,35 @@
+package com.example.ecommerce.api.repository;
+
+import com.example.ecommerce.api.entity.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Atomically takes the given quantities out of stock with one conditional UPDATE per product, sent as a
+     * single JDBC batch. Products are updated in ascending id order so concurrent reservations lock rows in
+     * the same order.
+     *
+     * @return ids of the products that did not have enough stock; their stock is left untouched
+     */
+    List<Long> reserveStock(Map<Long, Long> quantitiesByProductId);
+
+    /**
+     * Subtracts the quantities of all order items that are not yet applied from the product stock and marks
+     * those items applied, as one statement.
+     *
+     * @return number of products whose stock was updated
+     */
+    int applyPendingStock();
+
+    Map<Long, Long> findStockQuantities(Collection<Long> productIds);
+
+    /**
+     * Inserts new products as a single JDBC batch, which the driver rewrites into multi-row INSERTs. Generated
+     * ids are not read back. The batch commits on its own unless a transaction is already running.
+     */
+    void insertAll(List<Product> products);
+}
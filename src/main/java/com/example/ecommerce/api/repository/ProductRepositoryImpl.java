@@ -0,0 +1,94 @@
+package com.example.ecommerce.api.repository;
+
+import com.example.ecommerce.api.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String RESERVE_STOCK_SQL = """
+            UPDATE product
+            SET stock_quantity = stock_quantity - ?
+            WHERE id = ? AND stock_quantity >= ?
+            """;
+
+    static final String APPLY_PENDING_STOCK_SQL = """
+            WITH applied AS (
+                UPDATE order_item
+                SET stock_applied = TRUE
+                WHERE stock_applied = FALSE
+                RETURNING product_id, quantity
+            )
+            UPDATE product p
+            SET stock_quantity = p.stock_quantity - pending.quantity
+            FROM (SELECT product_id, SUM(quantity) AS quantity FROM applied GROUP BY product_id) pending
+            WHERE p.id = pending.product_id
+            """;
+
+    private static final String INSERT_PRODUCT_SQL = """
+            INSERT INTO product (name, description, image_url, price, currency, stock_quantity)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> reserveStock(Map<Long, Long> quantitiesByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        new TreeMap<>(quantitiesByProductId).forEach((productId, quantity) ->
+                batchArgs.add(new Object[]{quantity, productId, quantity}));
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, batchArgs);
+
+        List<Long> outOfStock = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) outOfStock.add((Long) batchArgs.get(i)[1]);
+        }
+
+        return outOfStock;
+    }
+
+    @Override
+    public int applyPendingStock() {
+        return jdbcTemplate.update(APPLY_PENDING_STOCK_SQL);
+    }
+
+    @Override
+    public Map<Long, Long> findStockQuantities(Collection<Long> productIds) {
+        Map<Long, Long> stockQuantities = new HashMap<>();
+
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(
+                "SELECT id, stock_quantity FROM product WHERE id IN (:ids)",
+                Map.of("ids", productIds),
+                rs -> {
+                    stockQuantities.put(rs.getLong("id"), rs.getLong("stock_quantity"));
+                });
+
+        return stockQuantities;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Product> products) {
+        if (products.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, products, products.size(), (ps, product) -> {
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setString(3, product.getImageUrl());
+            ps.setLong(4, product.getPrice());
+            ps.setString(5, product.getCurrency());
+            ps.setLong(6, product.getStockQuantity());
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ecommerce.api.repository;
+
+/**
+ * A product matching a full-text search, with the columns of the response and its relevance to the query.
+ */
+public interface ProductSearchView {
+    long getId();
+    String getName();
+    String getDescription();
+    String getImageUrl();
+    long getPrice();
+    String getCurrency();
+    float getRank();
+}
@@ -3,11 +3,14 @@ package com.example.ecommerce.api.repository;
 import com.example.ecommerce.api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // a short transaction of its own, sign-in calls it outside any transaction
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
 }
@@ -15,13 +15,18 @@ import com.example.ecommerce.api.service.interfaces.IAuthenticationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
+/**
+ * Both operations hash a password, which can wait in the bounded BCrypt queue. They therefore run outside
+ * any transaction: each repository call takes a pooled connection only for its own short transaction, and
+ * none is held while hashing.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class AuthenticationService implements IAuthenticationService {
 
     private final UserRepository userRepository;
@@ -29,6 +34,7 @@ public class AuthenticationService implements IAuthenticationService {
     private final JwtService jwtService;
     private final UserMapper userMapper;
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void register(RegistrationRequestDto request) {
         // check if email is unique
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
@@ -47,6 +53,7 @@ public class AuthenticationService implements IAuthenticationService {
         userRepository.save(user);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthenticationResponseDto authenticate(AuthenticationRequestDto request) {
 
         Optional<User> user = userRepository.findByEmail(request.getEmail());
@@ -3,21 +3,27 @@ package com.example.ecommerce.api.service;
 import com.example.ecommerce.api.mapstruct.dto.cart.AddToCartDto;
 import com.example.ecommerce.api.mapstruct.dto.cart.CartDto;
 import com.example.ecommerce.api.entity.Cart;
-import com.example.ecommerce.api.entity.Product;
 import com.example.ecommerce.api.entity.User;
 import com.example.ecommerce.api.exception.CartItemNotFoundException;
 import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.InsufficientStockException;
 import com.example.ecommerce.api.exception.ProductNotFoundException;
-import com.example.ecommerce.api.mapstruct.dto.cart.CartItemDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.CartOperationDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.UpdateCartDto;
 import com.example.ecommerce.api.mapstruct.mappers.CartMapper;
+import com.example.ecommerce.api.repository.CartItemView;
 import com.example.ecommerce.api.repository.CartRepository;
 import com.example.ecommerce.api.repository.ProductRepository;
 import com.example.ecommerce.api.service.interfaces.ICartService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -30,53 +36,94 @@ public class CartService implements ICartService {
 
 
     @Override
+    @Transactional
     public long addProduct(AddToCartDto addToCartDto, User user) {
-        // retrieve product to be added to cart
-        Optional<Product> productOptional = productRepository.findById(addToCartDto.getProductId());
+        // adds a new cart item or increments the existing one in a single statement
+        Optional<Long> cartId = cartRepository.upsert(user.getId(), addToCartDto.getProductId(),
+                addToCartDto.getQuantity(), LocalDateTime.now());
 
-        if (productOptional.isEmpty()) throw new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND);
+        if (cartId.isPresent()) return cartId.get();
 
-        // check if product is already in user's shopping cart
-        Optional<Cart> cartOptional = cartRepository.findByUserAndProduct(user, productOptional.get());
-        Cart cart;
-
-        // product is already in users shopping cart, update its count
-        if (cartOptional.isPresent()) {
-            cart = cartOptional.get();
-            cart.setQuantity(cart.getQuantity() + addToCartDto.getQuantity());
-            cart = cartRepository.save(cart);
-            return cart.getId();
+        // nothing was written, only now find out why
+        if (!productRepository.existsById(addToCartDto.getProductId())) {
+            throw new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND);
         }
 
-        cart = Cart.builder()
-                .product(productOptional.get())
-                .user(user)
-                .quantity(addToCartDto.getQuantity())
-                .dateCreated(LocalDateTime.now())
-                .build();
-
-         cart = cartRepository.save(cart);
-
-        return cart.getId();
+        // the stock is only reserved at checkout, but there is no point in adding more than is available
+        throw new InsufficientStockException(ExceptionMessages.INSUFFICIENT_STOCK);
     }
 
     @Override
     public CartDto getAllCartProducts(long userId) {
-        List<Cart> cartItems = cartRepository.findAllByUser_IdOrderByDateCreatedDesc(userId);
+        List<CartItemView> cartItems = cartRepository.findCartViewByUserId(userId);
         CartDto cartDto = new CartDto();
-        double totalCost = 0;
 
-        for (Cart cart : cartItems) {
-            CartItemDto cartItemDto = cartMapper.mapCartItemToDto(cart);
-
-            cartDto.addCartItem(cartItemDto);
-            totalCost += cart.getProduct().getPrice() * cart.getQuantity();
+        for (CartItemView cartItem : cartItems) {
+            cartDto.addCartItem(cartMapper.mapCartItemViewToDto(cartItem));
+        }
+        // every row carries the total of the whole cart
+        if (!cartItems.isEmpty()) {
+            cartDto.setTotalCost(cartItems.get(0).getTotalCost());
+            cartDto.setCurrency(cartItems.get(0).getProductCurrency());
         }
-        cartDto.setTotalCost(totalCost);
 
         return cartDto;
     }
 
+    @Override
+    public String getCartVersion(long userId) {
+        return cartRepository.findCartVersionByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public CartDto updateCart(UpdateCartDto updateCartDto, User user) {
+        // fold the operations into one final change per product: either an absolute quantity or an increment
+        Map<Long, Long> setQuantities = new LinkedHashMap<>();
+        Map<Long, Long> addQuantities = new LinkedHashMap<>();
+
+        for (CartOperationDto operation : updateCartDto.getOperations()) {
+            long productId = operation.getProductId();
+
+            switch (operation.getOp()) {
+                case ADD -> {
+                    if (setQuantities.containsKey(productId)) {
+                        setQuantities.merge(productId, operation.getQuantity(), Long::sum);
+                    } else {
+                        addQuantities.merge(productId, operation.getQuantity(), Long::sum);
+                    }
+                }
+                case SET -> {
+                    addQuantities.remove(productId);
+                    setQuantities.put(productId, operation.getQuantity());
+                }
+                case REMOVE -> {
+                    addQuantities.remove(productId);
+                    setQuantities.put(productId, 0L);
+                }
+            }
+        }
+
+        List<Long> removals = new ArrayList<>();
+        setQuantities.entrySet().removeIf(entry -> entry.getValue() == 0 && removals.add(entry.getKey()));
+        addQuantities.values().removeIf(quantity -> quantity == 0);
+
+        LocalDateTime now = LocalDateTime.now();
+        cartRepository.removeProducts(user.getId(), removals);
+        List<Long> rejected = new ArrayList<>(cartRepository.setQuantities(user.getId(), setQuantities, now));
+        rejected.addAll(cartRepository.addQuantities(user.getId(), addQuantities, now));
+
+        // a rejected product rolls back the whole update
+        for (Long productId : rejected) {
+            if (!productRepository.existsById(productId)) {
+                throw new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND);
+            }
+        }
+        if (!rejected.isEmpty()) throw new InsufficientStockException(ExceptionMessages.INSUFFICIENT_STOCK);
+
+        return getAllCartProducts(user.getId());
+    }
+
     @Override
     public void updateCartItem(AddToCartDto addToCartDto, long cartId, User user) {
         Optional<Cart> cartOptional = cartRepository.findByIdAndUser(cartId, user);
@@ -0,0 +1,106 @@
+package com.example.ecommerce.api.service;
+
+import com.example.ecommerce.api.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional flash-sale mode for a configured set of hot products. Checkout reserves their stock from
+ * in-memory striped counters instead of updating the product row, and the order items are written with
+ * {@code stock_applied = false}. A periodic flush subtracts those items from {@code product.stock_quantity}
+ * and marks them applied in one statement, so a crash between checkout and flush loses nothing: the
+ * startup flush applies whatever committed orders were left pending before the counters are loaded.
+ * <p>
+ * The counters own the stock of hot products while the mode is on, which assumes a single application
+ * instance and that their stock is not changed through the database in the meantime. Product updates
+ * through the API are rejected for hot products for that reason.
+ */
+@Component
+public class HotSkuInventory implements SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Set<Long> hotProductIds;
+    private final int stripes;
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+
+    public HotSkuInventory(ProductRepository productRepository,
+                           @Value("${application.inventory.hot-sku.enabled:false}") boolean enabled,
+                           @Value("${application.inventory.hot-sku.product-ids:}") Set<Long> hotProductIds,
+                           @Value("${application.inventory.hot-sku.stripes:0}") int stripes) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.hotProductIds = hotProductIds;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled || hotProductIds.isEmpty()) return;
+
+        // reconcile first: orders committed before a crash still count against the stored stock
+        productRepository.applyPendingStock();
+        productRepository.findStockQuantities(hotProductIds).forEach((productId, stockQuantity) ->
+                counters.put(productId, new StripedStockCounter(Math.max(stockQuantity, 0), stripes)));
+    }
+
+    public boolean isHot(long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Reserves all given quantities or none of them. Inside a transaction the reservation is handed back
+     * if the transaction rolls back.
+     */
+    public boolean reserve(Map<Long, Long> quantitiesByProductId) {
+        List<Map.Entry<Long, Long>> reserved = new ArrayList<>(quantitiesByProductId.size());
+
+        for (Map.Entry<Long, Long> entry : quantitiesByProductId.entrySet()) {
+            if (!counters.get(entry.getKey()).tryTake(entry.getValue())) {
+                release(reserved);
+                return false;
+            }
+            reserved.add(entry);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) release(reserved);
+                }
+            });
+        }
+
+        return true;
+    }
+
+    public long available(long productId) {
+        return counters.get(productId).available();
+    }
+
+    @Scheduled(fixedDelayString = "${application.inventory.hot-sku.flush-interval:PT1S}")
+    @PreDestroy
+    public void flush() {
+        if (counters.isEmpty()) return;
+
+        productRepository.applyPendingStock();
+    }
+
+    private void release(List<Map.Entry<Long, Long>> reserved) {
+        for (Map.Entry<Long, Long> entry : reserved) {
+            counters.get(entry.getKey()).release(entry.getValue());
+        }
+    }
+}
@@ -1,90 +1,141 @@
 package com.example.ecommerce.api.service;
 
+import com.example.ecommerce.api.config.MoneyProperties;
 import com.example.ecommerce.api.mapstruct.dto.order.OrderDto;
 import com.example.ecommerce.api.mapstruct.dto.order.OrderItemDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageRequestDto;
 import com.example.ecommerce.api.entity.Cart;
 import com.example.ecommerce.api.entity.Order;
 import com.example.ecommerce.api.entity.OrderItem;
 import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.exception.CurrencyMismatchException;
 import com.example.ecommerce.api.exception.EmptyCartException;
 import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.InsufficientStockException;
+import com.example.ecommerce.api.exception.InvalidCursorException;
 import com.example.ecommerce.api.exception.OrderNotFoundException;
 import com.example.ecommerce.api.mapstruct.mappers.OrderMapper;
 import com.example.ecommerce.api.repository.CartRepository;
 import com.example.ecommerce.api.repository.OrderItemRepository;
 import com.example.ecommerce.api.repository.OrderRepository;
+import com.example.ecommerce.api.repository.ProductRepository;
 import com.example.ecommerce.api.service.interfaces.IOrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 
 @Service
 @RequiredArgsConstructor
 public class OrderService implements IOrderService {
+    // open ends of the date range, inside what a PostgreSQL timestamp can hold
+    private static final LocalDateTime EARLIEST = LocalDate.EPOCH.atStartOfDay();
+    private static final LocalDateTime LATEST = LocalDate.of(9999, 12, 31).atStartOfDay();
+    private static final String CURSOR_SEPARATOR = "_";
+
     private final CartRepository cartRepository;
     private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderMapper orderMapper;
+    private final HotSkuInventory hotSkuInventory;
+    private final MoneyProperties moneyProperties;
 
 
     @Override
-    public List<OrderDto> getAllOrders(User user) {
-        List<Order> orders =  orderRepository.findAllByUserOrderByDateCreatedDesc(user);
+    public OrderPageDto getAllOrders(User user, OrderPageRequestDto pageRequest) {
+        OrderCursor before = decodeCursor(pageRequest.getCursor());
+        LocalDateTime from = pageRequest.getFrom() == null ? EARLIEST : pageRequest.getFrom().atStartOfDay();
+
+        // 'to' is inclusive, so the page ends before the first instant of the following day
+        if (pageRequest.getTo() != null) {
+            OrderCursor to = new OrderCursor(pageRequest.getTo().plusDays(1).atStartOfDay(), 0);
+            if (to.isBefore(before)) before = to;
+        }
 
-        List<OrderDto> orderDtos = new ArrayList<>();
+        int size = pageRequest.getSize();
 
-        for (Order order : orders) {
-            orderDtos.add(orderMapper.mapOrderToDto(order));
+        // fetch one extra row to find out whether there is a next page without a count query
+        List<OrderDto> orders = orderRepository.findPageBefore(user.getId(), from,
+                before.dateCreated(), before.id(), PageRequest.of(0, size + 1));
+
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            OrderDto last = orders.get(size - 1);
+            nextCursor = encodeCursor(new OrderCursor(last.getDateCreated(), last.getId()));
         }
 
-        return orderDtos;
+        return OrderPageDto.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
+    @Transactional
     public long createOrder(User user) {
-        List<Cart> shoppingCart = cartRepository.findAllByUser(user);
+        // the order, its items and the emptied cart are committed together or not at all
+        List<Cart> shoppingCart = cartRepository.findAllWithProductByUserId(user.getId());
 
         if (shoppingCart.size() == 0) throw new EmptyCartException(ExceptionMessages.CART_IS_EMPTY);
 
-        double totalPrice = 0;
+        String currency = moneyProperties.getCurrency().getCurrencyCode();
+        long totalPrice = 0;
         Order order = Order.builder()
                 .dateCreated(LocalDateTime.now())
                 .user(user)
+                .currency(currency)
                 .build();
 
         for (Cart cart : shoppingCart) {
+            if (!currency.equals(cart.getProduct().getCurrency())) {
+                throw new CurrencyMismatchException(ExceptionMessages.CURRENCY_MISMATCH);
+            }
+
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .quantity(cart.getQuantity())
                     .product(cart.getProduct())
                     .price(cart.getProduct().getPrice())
+                    .stockApplied(!hotSkuInventory.isHot(cart.getProduct().getId()))
                     .build();
 
             order.addOderItem(orderItem);
-            totalPrice += cart.getProduct().getPrice() * cart.getQuantity();
+            // exact long arithmetic, an overflow fails the order instead of wrapping around
+            totalPrice = Math.addExact(totalPrice, Math.multiplyExact(cart.getProduct().getPrice(), cart.getQuantity()));
         }
         order.setTotalPrice(totalPrice);
 
         // make order
         order = orderRepository.save(order);
         // remove items from user's shopping cart
-        cartRepository.deleteAll(shoppingCart);
+        cartRepository.deleteAllByUserId(user.getId());
+        // reserve stock last so the product rows stay locked only until the commit that follows
+        reserveStock(shoppingCart);
 
         return order.getId();
     }
 
     @Override
     public List<OrderItemDto> getOrder(long orderId, User user) {
-        Optional<Order> orderOptional = orderRepository.findByUserAndId(user, orderId);
+        List<OrderItem> orderItems = orderItemRepository.findAllWithProductByOrderIdAndUserId(orderId, user.getId());
 
-        if (orderOptional.isEmpty()) throw new OrderNotFoundException(ExceptionMessages.ORDER_NOT_FOUND);
+        // every order has at least one item, so no rows means no such order for this user
+        if (orderItems.isEmpty()) throw new OrderNotFoundException(ExceptionMessages.ORDER_NOT_FOUND);
 
-        List<OrderItem> orderItems = orderItemRepository.findAllByOrder(orderOptional.get());
         List<OrderItemDto> orderItemDtos = new ArrayList<>();
 
         for (OrderItem orderItem : orderItems) {
@@ -93,4 +144,53 @@ public class OrderService implements IOrderService {
 
         return orderItemDtos;
     }
+
+    private void reserveStock(List<Cart> shoppingCart) {
+        Map<Long, Long> hotQuantities = new HashMap<>();
+        Map<Long, Long> quantitiesByProductId = new HashMap<>();
+
+        for (Cart cart : shoppingCart) {
+            long productId = cart.getProduct().getId();
+            (hotSkuInventory.isHot(productId) ? hotQuantities : quantitiesByProductId)
+                    .merge(productId, cart.getQuantity(), Long::sum);
+        }
+
+        if (!hotQuantities.isEmpty() && !hotSkuInventory.reserve(hotQuantities)) {
+            throw new InsufficientStockException(ExceptionMessages.INSUFFICIENT_STOCK);
+        }
+
+        // any short product rolls back the whole order, including reservations already made
+        if (!quantitiesByProductId.isEmpty() && !productRepository.reserveStock(quantitiesByProductId).isEmpty()) {
+            throw new InsufficientStockException(ExceptionMessages.INSUFFICIENT_STOCK);
+        }
+    }
+
+    private static String encodeCursor(OrderCursor cursor) {
+        String value = cursor.dateCreated() + CURSOR_SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static OrderCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return new OrderCursor(LATEST, Long.MAX_VALUE);
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(CURSOR_SEPARATOR);
+            if (separator < 0) throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+
+            return new OrderCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+        }
+    }
+
+    // position of the last order of a page, in (date_created DESC, id DESC) order
+    private record OrderCursor(LocalDateTime dateCreated, long id) {
+
+        boolean isBefore(OrderCursor other) {
+            int byDate = dateCreated.compareTo(other.dateCreated);
+            return byDate < 0 || byDate == 0 && id < other.id;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.ecommerce.api.service;
+
+import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of single products for {@code GET /api/v1/products/{id}}. Entries are bounded by count
+ * and live at most {@code ttl}; a product is evicted when it is updated or removed through {@link ProductService}.
+ * Stock is not part of the cached view, so checkouts do not invalidate it. Hit, miss and eviction counts are
+ * published as the {@code cache.*} metrics tagged {@code cache=products}.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private final Cache<Long, ProductResponseDto> cache;
+
+    public ProductCache(@Value("${application.products.cache.ttl:10m}") Duration ttl,
+                        @Value("${application.products.cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public ProductResponseDto get(long productId, Function<Long, ProductResponseDto> loader) {
+        // loaded outside Caffeine's compute, whose lock would keep a virtual thread mounted while the loader
+        // waits on the database
+        ProductResponseDto product = cache.getIfPresent(productId);
+        if (product == null) {
+            product = loader.apply(productId);
+            cache.put(productId, product);
+        }
+        return product;
+    }
+
+    public ProductResponseDto getIfPresent(long productId) {
+        return cache.getIfPresent(productId);
+    }
+
+    public void evict(long productId) {
+        cache.invalidate(productId);
+
+        // evict again once committed, a concurrent read may have cached the old row in the meantime
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(productId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+    }
+}
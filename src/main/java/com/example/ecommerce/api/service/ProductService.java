@@ -1,21 +1,54 @@
 package com.example.ecommerce.api.service;
 
+import com.example.ecommerce.api.config.MoneyProperties;
+import com.example.ecommerce.api.config.ProductImportProperties;
 import com.example.ecommerce.api.mapstruct.dto.product.AddProductDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportErrorDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportResultDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.UpdateProductDto;
 import com.example.ecommerce.api.entity.Product;
+import com.example.ecommerce.api.exception.ConflictException;
 import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.InvalidCursorException;
+import com.example.ecommerce.api.exception.InvalidImportException;
+import com.example.ecommerce.api.exception.PreconditionFailedException;
 import com.example.ecommerce.api.exception.ProductNotFoundException;
 import com.example.ecommerce.api.mapstruct.mappers.ProductMapper;
 import com.example.ecommerce.api.repository.ProductRepository;
+import com.example.ecommerce.api.repository.ProductSearchView;
 import com.example.ecommerce.api.service.interfaces.IProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,52 +56,148 @@ import java.util.Optional;
 public class ProductService implements IProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final MoneyProperties moneyProperties;
+    private final ProductCache productCache;
+    private final ProductImportProperties importProperties;
+    private final Validator validator;
+    private final HotSkuInventory hotSkuInventory;
+
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    // columns are matched by the header row, so their order does not matter
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(AddProductDto.class)
+            .with(CsvSchema.emptySchema().withHeader());
 
     @Override
     public long createProduct(AddProductDto addProductDto) {
         Product product = productMapper.addProductDtoToProduct(addProductDto);
+        product.setCurrency(moneyProperties.getCurrency().getCurrencyCode());
         product = productRepository.save(product);
 
         return product.getId();
     }
 
     @Override
-    public List<ProductResponseDto> getProducts() {
-        List<Product> products = productRepository.findAll();
-        List<ProductResponseDto> productResponseDtos = new ArrayList<>();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductImportResultDto importProductsFromJson(InputStream inputStream) throws IOException {
+        return importProducts(objectMapper.readerFor(AddProductDto.class).readValues(inputStream));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductImportResultDto importProductsFromCsv(InputStream inputStream) throws IOException {
+        return importProducts(CSV_READER.readValues(inputStream));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDto getProducts(ProductPageRequestDto pageRequest) {
+        long afterId = decodeCursor(pageRequest.getCursor());
+        long minPrice = pageRequest.getMinPrice() == null ? 0 : pageRequest.getMinPrice();
+        long maxPrice = pageRequest.getMaxPrice() == null ? Long.MAX_VALUE : pageRequest.getMaxPrice();
+        int size = pageRequest.getSize();
+
+        // fetch one extra row to find out whether there is a next page without a count query
+        List<ProductResponseDto> products = productRepository.findPageAfter(afterId, minPrice, maxPrice,
+                pageRequest.isInStock(), PageRequest.of(0, size + 1));
 
-        for (Product product : products) {
-            productResponseDtos.add(productMapper.productToProductDto(product));
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = encodeCursor(products.get(size - 1).getId());
         }
 
-        return productResponseDtos;
+        return ProductPageDto.builder()
+                .products(products)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
-    public ProductResponseDto getProduct(long productId) {
-        Optional<Product> productOptional = productRepository.findById(productId);
+    @Transactional(readOnly = true)
+    public ProductSearchPageDto searchProducts(ProductSearchRequestDto searchRequest) {
+        int page = searchRequest.getPage();
+        int size = searchRequest.getSize();
 
-        if (productOptional.isEmpty()) throw new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND);
+        // fetch one extra match to find out whether there is a next page without a count query
+        List<ProductSearchView> matches = productRepository.search(searchRequest.getQ(), size + 1, (long) page * size);
 
-        return productMapper.productToProductDto(productOptional.get());
+        Integer nextPage = null;
+        if (matches.size() > size) {
+            matches = matches.subList(0, size);
+            nextPage = page + 1;
+        }
+
+        return ProductSearchPageDto.builder()
+                .products(matches.stream().map(productMapper::productSearchViewToDto).toList())
+                .nextPage(nextPage)
+                .build();
     }
 
     @Override
-    public void updateProduct(long productId, UpdateProductDto updateProductDto) {
-        Optional<Product> productOptional = productRepository.findById(productId);
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream outputStream) throws IOException {
+        // rows are written as they are fetched, so memory use does not depend on the catalog size
+        try (Stream<ProductResponseDto> products = productRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<ProductResponseDto> iterator = products.iterator();
+            int written = 0;
 
-        if (productOptional.isEmpty()) throw new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND);
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                generator.writeRaw('\n');
 
-        Product product = productOptional.get();
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) generator.flush();
+            }
+        }
+    }
+
+    @Override
+    // a cache hit should not check out a connection, findById runs in its own read-only transaction on a miss
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductResponseDto getProduct(long productId) {
+        return productCache.get(productId, id -> productRepository.findById(id)
+                .map(productMapper::productToProductDto)
+                .orElseThrow(() -> new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long getProductVersion(long productId) {
+        // the cached copy is what getProduct would answer with, so its version is the one to compare against
+        ProductResponseDto cached = productCache.getIfPresent(productId);
+        if (cached != null) return cached.getVersion();
+
+        return productRepository.findVersionById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND));
+    }
 
-        product.setId(updateProductDto.getId());
-        product.setName(updateProductDto.getName());
-        product.setDescription(product.getDescription());
-        product.setPrice(updateProductDto.getPrice());
-        product.setStockQuantity(updateProductDto.getStockQuantity());
-        product.setImageUrl(updateProductDto.getImageUrl());
+    @Override
+    public void updateProduct(long productId, UpdateProductDto updateProductDto, Long expectedVersion) {
+        // a hot product's stock is owned by its in-memory counter while the mode is on, writing stock_quantity
+        // behind the counter's back would make the two drift apart
+        if (hotSkuInventory.isHot(productId)) throw new ConflictException(ExceptionMessages.HOT_PRODUCT_STOCK);
+
+        // the id in the body is ignored, the path decides which product is written
+        int updated = expectedVersion == null
+                ? productRepository.update(productId, updateProductDto.getName(),
+                        updateProductDto.getDescription(), updateProductDto.getImageUrl(),
+                        updateProductDto.getPrice(), updateProductDto.getStockQuantity())
+                : productRepository.updateIfVersionMatches(productId, expectedVersion, updateProductDto.getName(),
+                        updateProductDto.getDescription(), updateProductDto.getImageUrl(),
+                        updateProductDto.getPrice(), updateProductDto.getStockQuantity());
+
+        // nothing was written, only now find out why
+        if (updated == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND);
+            }
+            throw new PreconditionFailedException(ExceptionMessages.PRODUCT_MODIFIED);
+        }
 
-        productRepository.save(product);
+        productCache.evict(productId);
     }
 
     @Override
@@ -78,5 +207,102 @@ public class ProductService implements IProductService {
         if (productOptional.isEmpty()) throw new ProductNotFoundException(ExceptionMessages.PRODUCT_NOT_FOUND);
 
         productRepository.deleteById(productOptional.get().getId());
+        productCache.evict(productId);
+    }
+
+    // rows are read one at a time, so memory use depends on the batch size rather than the size of the import;
+    // each batch commits on its own, so a failure part way keeps the batches written before it
+    private ProductImportResultDto importProducts(MappingIterator<AddProductDto> rows) throws IOException {
+        ProductImport productImport = new ProductImport();
+
+        try (rows) {
+            while (rows.hasNextValue()) {
+                try {
+                    productImport.add(rows.nextValue());
+                } catch (JsonMappingException ex) {
+                    // the iterator skips to the next row, a single bad value does not fail the import
+                    List<JsonMappingException.Reference> path = ex.getPath();
+                    productImport.reject(path.isEmpty() ? null : path.get(path.size() - 1).getFieldName());
+                }
+            }
+        } catch (StreamReadException ex) {
+            throw new InvalidImportException(ExceptionMessages.INVALID_IMPORT);
+        }
+
+        return productImport.finish();
+    }
+
+    private final class ProductImport {
+        private final List<Product> batch = new ArrayList<>();
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+        private final String currency = moneyProperties.getCurrency().getCurrencyCode();
+        private long row;
+        private long imported;
+        private long rejected;
+
+        void add(AddProductDto addProductDto) {
+            row++;
+            Set<ConstraintViolation<AddProductDto>> violations = validator.validate(addProductDto);
+
+            if (!violations.isEmpty()) {
+                rejected++;
+                violations.forEach(violation ->
+                        report(violation.getPropertyPath().toString(), violation.getMessage()));
+                return;
+            }
+
+            Product product = productMapper.addProductDtoToProduct(addProductDto);
+            product.setCurrency(currency);
+            batch.add(product);
+
+            if (batch.size() >= importProperties.getBatchSize()) flush();
+        }
+
+        void reject(String field) {
+            row++;
+            rejected++;
+            report(field, ExceptionMessages.MALFORMED_ROW);
+        }
+
+        ProductImportResultDto finish() {
+            flush();
+
+            return ProductImportResultDto.builder()
+                    .imported(imported)
+                    .rejected(rejected)
+                    .errors(errors)
+                    .build();
+        }
+
+        private void report(String field, String message) {
+            if (errors.size() < importProperties.getMaxReportedErrors()) {
+                errors.add(new ProductImportErrorDto(row, field, message));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) return;
+
+            productRepository.insertAll(batch);
+            imported += batch.size();
+            batch.clear();
+        }
+    }
+
+    private static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (lastId < 0) throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+            return lastId;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(ExceptionMessages.INVALID_CURSOR);
+        }
     }
 }
@@ -0,0 +1,83 @@
+package com.example.ecommerce.api.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Available stock of one product split across several independently updated cells, so concurrent
+ * reservations mostly CAS different cache lines instead of all spinning on one counter.
+ */
+class StripedStockCounter {
+
+    // 16 longs = 128 bytes between cells, enough to keep neighbouring stripes off the same cache line
+    private static final int PADDING = 16;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    StripedStockCounter(long available, int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, available / stripes + (i < available % stripes ? 1 : 0));
+        }
+    }
+
+    boolean tryTake(long quantity) {
+        int home = ThreadLocalRandom.current().nextInt(stripes);
+
+        // fast path: the whole quantity comes from a single stripe
+        return tryTakeAll(home, quantity) || tryTakeAcrossStripes(home, quantity);
+    }
+
+    void release(long quantity) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+    }
+
+    long available() {
+        long available = 0;
+
+        for (int i = 0; i < stripes; i++) {
+            available += cells.get(i * PADDING);
+        }
+
+        return available;
+    }
+
+    // slow path runs one at a time so two large reservations cannot each hold half of the last units
+    private synchronized boolean tryTakeAcrossStripes(int home, long quantity) {
+        long taken = 0;
+
+        for (int i = 0; i < stripes && taken < quantity; i++) {
+            taken += takeUpTo((home + i) % stripes, quantity - taken);
+        }
+
+        if (taken == quantity) return true;
+
+        cells.addAndGet(home * PADDING, taken);
+        return false;
+    }
+
+    private boolean tryTakeAll(int stripe, long quantity) {
+        int index = stripe * PADDING;
+
+        while (true) {
+            long current = cells.get(index);
+            if (current < quantity) return false;
+            if (cells.compareAndSet(index, current, current - quantity)) return true;
+        }
+    }
+
+    private long takeUpTo(int stripe, long quantity) {
+        int index = stripe * PADDING;
+
+        while (true) {
+            long current = cells.get(index);
+            if (current <= 0) return 0;
+
+            long take = Math.min(current, quantity);
+            if (cells.compareAndSet(index, current, current - take)) return take;
+        }
+    }
+}
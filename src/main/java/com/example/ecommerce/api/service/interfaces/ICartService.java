@@ -2,6 +2,7 @@ package com.example.ecommerce.api.service.interfaces;
 
 import com.example.ecommerce.api.mapstruct.dto.cart.AddToCartDto;
 import com.example.ecommerce.api.mapstruct.dto.cart.CartDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.UpdateCartDto;
 import com.example.ecommerce.api.entity.User;
 
 public interface ICartService {
@@ -10,6 +11,10 @@ public interface ICartService {
 
     CartDto getAllCartProducts(long userId);
 
+    String getCartVersion(long userId);
+
+    CartDto updateCart(UpdateCartDto updateCartDto, User user);
+
     void updateCartItem(AddToCartDto addToCartDto, long cartId, User user);
 
     void deleteCartItem(long cartId, User user);
@@ -1,14 +1,15 @@
 package com.example.ecommerce.api.service.interfaces;
 
-import com.example.ecommerce.api.mapstruct.dto.order.OrderDto;
 import com.example.ecommerce.api.mapstruct.dto.order.OrderItemDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageRequestDto;
 import com.example.ecommerce.api.entity.User;
 
 import java.util.List;
 
 public interface IOrderService {
 
-    List<OrderDto> getAllOrders(User user);
+    OrderPageDto getAllOrders(User user, OrderPageRequestDto pageRequest);
 
     long createOrder(User user);
 
@@ -1,20 +1,44 @@
 package com.example.ecommerce.api.service.interfaces;
 
 import com.example.ecommerce.api.mapstruct.dto.product.AddProductDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportResultDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.UpdateProductDto;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 public interface IProductService {
 
     long createProduct(AddProductDto addProductDto);
 
-    List<ProductResponseDto> getProducts();
+    /**
+     * Imports valid rows and reports invalid ones. Rows are written in batches that commit one by one, so
+     * the import is not all-or-nothing: if it fails part way, the batches written before stay.
+     */
+    ProductImportResultDto importProductsFromJson(InputStream inputStream) throws IOException;
+
+    /**
+     * Same as {@link #importProductsFromJson(InputStream)} for CSV with a header row.
+     */
+    ProductImportResultDto importProductsFromCsv(InputStream inputStream) throws IOException;
+
+    ProductPageDto getProducts(ProductPageRequestDto pageRequest);
+
+    ProductSearchPageDto searchProducts(ProductSearchRequestDto searchRequest);
+
+    void exportProducts(OutputStream outputStream) throws IOException;
 
     ProductResponseDto getProduct(long productId);
 
-    void updateProduct(long productId, UpdateProductDto product);
+    long getProductVersion(long productId);
+
+    void updateProduct(long productId, UpdateProductDto product, Long expectedVersion);
 
     void removeProduct(long productId);
 }
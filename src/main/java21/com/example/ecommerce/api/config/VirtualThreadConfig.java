@@ -0,0 +1,70 @@
+package com.example.ecommerce.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs servlet requests, async MVC responses such as the product export, and {@code @Async} methods on
+ * virtual threads. Only compiled by the {@code jdk21} Maven profile, and only active with
+ * {@code application.threads.virtual.enabled=true}.
+ * <p>
+ * Request concurrency is then bounded by the database rather than by Tomcat's thread pool, so the pool is
+ * wrapped in a {@link ConnectionLimitingDataSource} sized to it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // the semaphore times out like the pool would, so callers never wait inside HikariCP
+                if (bean instanceof DataSource dataSource) {
+                    HikariDataSource pool = hikariPool(dataSource);
+                    if (pool != null) {
+                        // HikariCP only fills in defaults such as the pool size of 10 when the pool starts,
+                        // until then an unset maximum pool size reads as -1
+                        pool.validate();
+                        return new ConnectionLimitingDataSource(dataSource, pool.getMaximumPoolSize(),
+                                pool.getConnectionTimeout());
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    // the pool may already be wrapped, e.g. in a StatementCountingDataSource
+    private static HikariDataSource hikariPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
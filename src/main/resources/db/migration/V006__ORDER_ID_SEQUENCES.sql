@@ -0,0 +1,11 @@
+-- Orders and order items take their ids from pooled sequences (increment = Hibernate allocationSize)
+-- so that inserts can be batched. The sequences start past the existing ids; Hibernate treats each
+-- value as the upper end of a block of 50.
+ALTER TABLE _order ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE order_item ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE _order_seq INCREMENT BY 50;
+CREATE SEQUENCE order_item_seq INCREMENT BY 50;
+
+SELECT setval('_order_seq', COALESCE((SELECT MAX(id) FROM _order), 0) + 50, false);
+SELECT setval('order_item_seq', COALESCE((SELECT MAX(id) FROM order_item), 0) + 50, false);
@@ -0,0 +1,5 @@
+-- Order items reserved from the in-memory hot product counters are stored with stock_applied = false
+-- until a flush subtracts them from product.stock_quantity. Everything that exists already is applied.
+ALTER TABLE order_item ADD COLUMN stock_applied BOOLEAN NOT NULL DEFAULT TRUE;
+
+CREATE INDEX order_item_stock_pending_idx ON order_item (product_id) WHERE stock_applied = FALSE;
@@ -0,0 +1,3 @@
+-- Serves the keyset-paginated order history: equality on user_id, then a range scan in
+-- (date_created DESC, id DESC) order that stops after one page.
+CREATE INDEX order_user_id_date_created_id_idx ON _order (user_id, date_created DESC, id DESC);
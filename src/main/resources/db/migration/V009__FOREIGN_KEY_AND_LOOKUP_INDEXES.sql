@@ -0,0 +1,25 @@
+-- Foreign keys created by V003-V005 have no indexes of their own, and _user.email is looked up on every
+-- authenticated request. _order(user_id) is already covered by the leading column of the V008 index.
+
+-- one row per product in a user's cart: fold duplicates into the oldest row before enforcing it
+UPDATE cart c
+SET quantity = d.quantity
+FROM (SELECT MIN(id) AS id, SUM(quantity) AS quantity
+      FROM cart
+      GROUP BY user_id, product_id
+      HAVING COUNT(*) > 1) d
+WHERE c.id = d.id;
+
+DELETE FROM cart c
+USING cart keep
+WHERE c.user_id = keep.user_id
+  AND c.product_id = keep.product_id
+  AND c.id > keep.id;
+
+CREATE UNIQUE INDEX cart_user_id_product_id_key ON cart (user_id, product_id);
+CREATE INDEX cart_user_id_date_created_idx ON cart (user_id, date_created);
+
+-- the existing UNIQUE (product_id, order_id) cannot serve lookups by order
+CREATE INDEX order_item_order_id_idx ON order_item (order_id);
+
+CREATE UNIQUE INDEX _user_email_key ON _user (email);
@@ -0,0 +1,15 @@
+-- Amounts move from DOUBLE PRECISION to BIGINT minor units (cents) plus an ISO 4217 currency code.
+-- Existing data is assumed to be in EUR, the default application.money.currency.
+ALTER TABLE product ALTER COLUMN price TYPE BIGINT USING ROUND(price * 100)::BIGINT;
+ALTER TABLE product ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'EUR';
+
+ALTER TABLE order_item ALTER COLUMN price TYPE BIGINT USING ROUND(price * 100)::BIGINT;
+
+ALTER TABLE _order ALTER COLUMN total_price TYPE BIGINT USING ROUND(total_price * 100)::BIGINT;
+ALTER TABLE _order ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'EUR';
+
+-- totals summed as doubles may be off by a cent, recompute them from the exact item prices
+UPDATE _order o
+SET total_price = i.total
+FROM (SELECT order_id, SUM(price * quantity) AS total FROM order_item GROUP BY order_id) i
+WHERE o.id = i.order_id;
@@ -0,0 +1,3 @@
+-- optimistic lock versions, also served as the ETag of GET /api/v1/products/{id} and GET /api/v1/cart
+ALTER TABLE product ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cart ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Full-text search over name and description for GET /api/v1/products/search. The vector is maintained by
+-- PostgreSQL on every insert and update; name matches weigh more than description matches.
+ALTER TABLE product ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX product_search_vector_idx ON product USING GIN (search_vector);
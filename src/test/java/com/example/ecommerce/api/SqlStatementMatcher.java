@@ -0,0 +1,39 @@
+package com.example.ecommerce.api;
+
+import com.example.ecommerce.api.config.SqlStatementFilter;
+import com.example.ecommerce.api.config.SqlStatementStats;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the SQL statements a request runs, as recorded by {@link SqlStatementFilter}.
+ */
+public class SqlStatementMatcher {
+
+    public ResultMatcher count(int expectedStatements) {
+        return mvcResult -> assertThat(stats(mvcResult).getStatementCount())
+                .withFailMessage("Expecting %d SQL statements but %d were executed",
+                        expectedStatements, stats(mvcResult).getStatementCount())
+                .isEqualTo(expectedStatements);
+    }
+
+    public ResultMatcher noneRepeatedAtLeast(int threshold) {
+        return mvcResult -> assertThat(stats(mvcResult).getRepeatedStatements(threshold))
+                .withFailMessage("Expecting no SQL statement to run %d times or more but got %s",
+                        threshold, stats(mvcResult).getRepeatedStatements(threshold))
+                .isEmpty();
+    }
+
+    private SqlStatementStats stats(MvcResult mvcResult) {
+        SqlStatementStats stats = (SqlStatementStats) mvcResult.getRequest().getAttribute(SqlStatementFilter.STATS_ATTRIBUTE);
+        assertThat(stats).withFailMessage("SQL statements were not recorded, is application.sql-statements.enabled set?")
+                .isNotNull();
+        return stats;
+    }
+
+    public static SqlStatementMatcher sqlStatements() {
+        return new SqlStatementMatcher();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void shouldHashAndVerifyPasswordsOnHashingThreads() {
+        // Given
+        BoundedPasswordEncoder cut = new BoundedPasswordEncoder(4, 1, 1, Duration.ofSeconds(1));
+
+        // When
+        String hash = cut.encode("secret");
+
+        // Then
+        assertThat(cut.matches("secret", hash)).isTrue();
+        assertThat(cut.matches("wrong", hash)).isFalse();
+        cut.shutdown();
+    }
+
+    @Test
+    void shouldRejectHashingWhenQueueIsFull() throws Exception {
+        // Given
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        }).given(delegate).encode("secret");
+        given(delegate.matches("secret", "hash")).willReturn(true);
+        BoundedPasswordEncoder cut = new BoundedPasswordEncoder(delegate, 4, 1, 1, Duration.ofSeconds(3));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> cut.encode("secret"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> cut.matches("secret", "hash"));
+        while (cut.getQueueSize() == 0) Thread.onSpinWait();
+
+        // When
+        assertThatThrownBy(() -> cut.encode("secret"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting(ex -> ((TooManyRequestsException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(3));
+
+        // Then
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        cut.shutdown();
+    }
+
+    @Test
+    void shouldNeverCalibrateBelowMinimumStrength() {
+        // When
+        int strength = BoundedPasswordEncoder.calibrateStrength(Duration.ofNanos(1));
+
+        // Then
+        assertThat(strength).isEqualTo(BoundedPasswordEncoder.MIN_STRENGTH);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ecommerce.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+class ConnectionLimitingDataSourceTest {
+
+    @Test
+    void shouldTimeOutWhenAllConnectionsAreInUse() throws SQLException {
+        // Given
+        DataSource dataSource = mock(DataSource.class);
+        given(dataSource.getConnection()).willReturn(mock(Connection.class));
+        ConnectionLimitingDataSource cut = new ConnectionLimitingDataSource(dataSource, 1, 10);
+        cut.getConnection();
+
+        // When
+        assertThatThrownBy(cut::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+
+        // Then
+        then(dataSource).should().getConnection();
+    }
+
+    @Test
+    void shouldReturnPermitOnceWhenConnectionIsClosed() throws SQLException {
+        // Given
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        given(dataSource.getConnection()).willReturn(connection);
+        ConnectionLimitingDataSource cut = new ConnectionLimitingDataSource(dataSource, 2, 10);
+        Connection limited = cut.getConnection();
+
+        // When
+        limited.close();
+        limited.close();
+
+        // Then
+        assertThat(cut.getAvailablePermits()).isEqualTo(2);
+        then(connection).should(times(2)).close();
+    }
+
+    @Test
+    void shouldReturnPermitWhenPoolFailsToHandOutConnection() throws SQLException {
+        // Given
+        DataSource dataSource = mock(DataSource.class);
+        given(dataSource.getConnection()).willThrow(new SQLException("pool is down"));
+        ConnectionLimitingDataSource cut = new ConnectionLimitingDataSource(dataSource, 1, 10);
+
+        // When
+        assertThatThrownBy(cut::getConnection)
+                .isInstanceOf(SQLException.class)
+                .hasMessage("pool is down");
+
+        // Then
+        assertThat(cut.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+    private final JwtService cut = new JwtService();
+
+    @Test
+    void shouldVerifyGeneratedToken() {
+        // Given
+        User user = getUser("john@gmail.com");
+        String token = cut.generateToken(user);
+
+        // When
+        VerifiedToken verifiedToken = cut.verify(token);
+
+        // Then
+        assertThat(verifiedToken.subject()).isEqualTo(user.getUsername());
+        assertThat(verifiedToken.isExpired()).isFalse();
+        assertThat(cut.isTokenValid(verifiedToken, user)).isTrue();
+    }
+
+    @Test
+    void shouldNotValidateTokenIssuedForAnotherUser() {
+        // Given
+        String token = cut.generateToken(getUser("john@gmail.com"));
+
+        // When
+        boolean valid = cut.isTokenValid(token, getUser("jane@gmail.com"));
+
+        // Then
+        assertThat(valid).isFalse();
+    }
+
+    @Test
+    void shouldRejectTokenWithTamperedSignature() {
+        // Given
+        String token = cut.generateToken(getUser("john@gmail.com"));
+        String tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // When
+        // Then
+        assertThatThrownBy(() -> cut.verify(tamperedToken))
+                .isInstanceOf(JwtException.class);
+    }
+
+    private User getUser(String email) {
+        return User.builder()
+                .email(email)
+                .role(UserRole.USER)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.ecommerce.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenCacheTest {
+    private static final String TOKEN = "header.payload.signature";
+
+    @Test
+    void shouldReturnCachedTokenUntilItExpires() {
+        // Given
+        JwtTokenCache cut = new JwtTokenCache(true, 10);
+        VerifiedToken verifiedToken = new VerifiedToken("john@gmail.com", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        // When
+        cut.put(TOKEN, verifiedToken);
+
+        // Then
+        assertThat(cut.get(TOKEN)).isEqualTo(verifiedToken);
+        assertThat(cut.get("another.token.value")).isNull();
+    }
+
+    @Test
+    void shouldNotCacheExpiredToken() {
+        // Given
+        JwtTokenCache cut = new JwtTokenCache(true, 10);
+        VerifiedToken verifiedToken = new VerifiedToken("john@gmail.com", Instant.now().minusSeconds(1));
+
+        // When
+        cut.put(TOKEN, verifiedToken);
+
+        // Then
+        assertThat(cut.get(TOKEN)).isNull();
+    }
+
+    @Test
+    void shouldNotCacheAnythingWhenDisabled() {
+        // Given
+        JwtTokenCache cut = new JwtTokenCache(false, 10);
+
+        // When
+        cut.put(TOKEN, new VerifiedToken("john@gmail.com", Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        // Then
+        assertThat(cut.get(TOKEN)).isNull();
+    }
+
+    @Test
+    void shouldExposeHitAndMissCounters() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtTokenCache cut = new JwtTokenCache(true, 10);
+        cut.bindTo(registry);
+        cut.put(TOKEN, new VerifiedToken("john@gmail.com", Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        // When
+        cut.get(TOKEN);
+        cut.get("another.token.value");
+
+        // Then
+        assertThat(registry.get("cache.gets").tag("cache", "jwtTokens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "jwtTokens").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+class RateLimitFilterTest {
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final FilterChain filterChain = mock(FilterChain.class);
+    private final RateLimitFilter cut = new RateLimitFilter(rateLimiter, new ObjectMapper());
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldPassAdmittedRequestOn() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        given(rateLimiter.tryAcquire("catalog", "127.0.0.1")).willReturn(0L);
+
+        // When
+        cut.doFilter(request, response, filterChain);
+
+        // Then
+        then(filterChain).should().doFilter(request, response);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRejectThrottledRequestWithRetryAfter() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/signIn");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        given(rateLimiter.tryAcquire("auth", "127.0.0.1")).willReturn(1_500_000_000L);
+
+        // When
+        cut.doFilter(request, response, filterChain);
+
+        // Then
+        then(filterChain).should(never()).doFilter(any(), any());
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+    }
+
+    @Test
+    void shouldKeyAuthenticatedClientByUserName() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/cart");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("john@gmail.com", null, List.of()));
+        given(rateLimiter.tryAcquire("cart", "john@gmail.com")).willReturn(0L);
+
+        // When
+        cut.doFilter(request, response, filterChain);
+
+        // Then
+        then(filterChain).should().doFilter(request, response);
+    }
+
+    @Test
+    void shouldKeyAuthenticatedClientWithoutNameByAddress() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/cart");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        User principal = User.builder().role(UserRole.USER).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        given(rateLimiter.tryAcquire("cart", "127.0.0.1")).willReturn(0L);
+
+        // When
+        cut.doFilter(request, response, filterChain);
+
+        // Then
+        then(rateLimiter).should().tryAcquire("cart", "127.0.0.1");
+        then(filterChain).should().doFilter(request, response);
+    }
+
+    @Test
+    void shouldMapPathsToRouteGroups() {
+        assertThat(RateLimitFilter.routeGroup("/api/v1/products")).isEqualTo("catalog");
+        assertThat(RateLimitFilter.routeGroup("/api/v1/cart/items")).isEqualTo("cart");
+        assertThat(RateLimitFilter.routeGroup("/api/v1/orders/1")).isEqualTo("orders");
+        assertThat(RateLimitFilter.routeGroup("/api/v1/signUp")).isEqualTo("auth");
+        assertThat(RateLimitFilter.routeGroup("/swagger-ui/index.html")).isNull();
+    }
+}
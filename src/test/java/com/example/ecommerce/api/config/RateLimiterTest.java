@@ -0,0 +1,84 @@
+package com.example.ecommerce.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+    private static final String CLIENT = "john@gmail.com";
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void shouldAdmitBurstUpToCapacity() {
+        // Given
+        RateLimiter cut = new RateLimiter(properties(true, 3, 1));
+
+        // When
+        long first = cut.tryAcquire("catalog", CLIENT, 0);
+        long second = cut.tryAcquire("catalog", CLIENT, 0);
+        long third = cut.tryAcquire("catalog", CLIENT, 0);
+        long fourth = cut.tryAcquire("catalog", CLIENT, 0);
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isZero();
+        assertThat(fourth).isEqualTo(SECOND);
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        // Given
+        RateLimiter cut = new RateLimiter(properties(true, 1, 2));
+        cut.tryAcquire("catalog", CLIENT, 0);
+
+        // When
+        long tooEarly = cut.tryAcquire("catalog", CLIENT, SECOND / 4);
+        long refilled = cut.tryAcquire("catalog", CLIENT, SECOND / 2);
+
+        // Then
+        assertThat(tooEarly).isEqualTo(SECOND / 4);
+        assertThat(refilled).isZero();
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerClient() {
+        // Given
+        RateLimiter cut = new RateLimiter(properties(true, 1, 1));
+        cut.tryAcquire("catalog", CLIENT, 0);
+
+        // When
+        long other = cut.tryAcquire("catalog", "127.0.0.1", 0);
+
+        // Then
+        assertThat(other).isZero();
+    }
+
+    @Test
+    void shouldNotLimitUnknownGroupOrWhenDisabled() {
+        // Given
+        RateLimiter disabled = new RateLimiter(properties(false, 1, 1));
+        RateLimiter enabled = new RateLimiter(properties(true, 1, 1));
+
+        // When
+        disabled.tryAcquire("catalog", CLIENT, 0);
+        enabled.tryAcquire("orders", CLIENT, 0);
+
+        // Then
+        assertThat(disabled.tryAcquire("catalog", CLIENT, 0)).isZero();
+        assertThat(enabled.tryAcquire("orders", CLIENT, 0)).isZero();
+    }
+
+    private RateLimitProperties properties(boolean enabled, long capacity, double refillPerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(enabled);
+        properties.setGroups(Map.of("catalog", limit));
+        return properties;
+    }
+}
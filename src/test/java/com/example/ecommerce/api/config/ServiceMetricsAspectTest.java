@@ -0,0 +1,69 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.exception.InvalidCredentialsException;
+import com.example.ecommerce.api.mapstruct.dto.user.AuthenticationRequestDto;
+import com.example.ecommerce.api.mapstruct.dto.user.AuthenticationResponseDto;
+import com.example.ecommerce.api.mapstruct.dto.user.RegistrationRequestDto;
+import com.example.ecommerce.api.service.interfaces.IAuthenticationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceMetricsAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldTimeSuccessfulCalls() {
+        // Given
+        IAuthenticationService service = proxy(new StubAuthenticationService());
+
+        // When
+        service.register(new RegistrationRequestDto());
+        service.register(new RegistrationRequestDto());
+
+        // Then
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("service", "StubAuthenticationService")
+                .tag("method", "register")
+                .tag("exception", "none")
+                .timer()
+                .count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTagFailedCallsWithException() {
+        // Given
+        IAuthenticationService service = proxy(new StubAuthenticationService());
+
+        // When
+        assertThatThrownBy(() -> service.authenticate(new AuthenticationRequestDto()))
+                .isInstanceOf(InvalidCredentialsException.class);
+
+        // Then
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "authenticate")
+                .tag("exception", "InvalidCredentialsException")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    private IAuthenticationService proxy(IAuthenticationService target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        return factory.getProxy();
+    }
+
+    static class StubAuthenticationService implements IAuthenticationService {
+        @Override
+        public void register(RegistrationRequestDto request) {
+        }
+
+        @Override
+        public AuthenticationResponseDto authenticate(AuthenticationRequestDto request) {
+            throw new InvalidCredentialsException("Invalid credentials");
+        }
+    }
+}
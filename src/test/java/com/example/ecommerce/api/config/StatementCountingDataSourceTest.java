@@ -0,0 +1,91 @@
+package com.example.ecommerce.api.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class StatementCountingDataSourceTest {
+    private static final String SELECT_BY_ID = "SELECT name FROM product WHERE id = ?";
+
+    private StatementCountingDataSource cut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-counting;DB_CLOSE_DELAY=-1");
+        cut = new StatementCountingDataSource(h2);
+
+        try (Connection connection = cut.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+            statement.execute("INSERT INTO product VALUES (1, 'Phone'), (2, 'Charger'), (3, 'Case')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SqlStatementStats.stop();
+        try (Connection connection = cut.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE product");
+        }
+    }
+
+    @Test
+    void shouldCountRepeatedStatementsWhileRecording() throws SQLException {
+        // Given
+        SqlStatementStats stats = SqlStatementStats.start();
+
+        // When
+        try (Connection connection = cut.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)) {
+            for (long id = 1; id <= 3; id++) {
+                statement.setLong(1, id);
+                statement.executeQuery().close();
+            }
+        }
+
+        // Then
+        assertThat(stats.getStatementCount()).isEqualTo(3);
+        assertThat(stats.getRepeatedStatements(3)).containsExactly(entry(SELECT_BY_ID, 3));
+    }
+
+    @Test
+    void shouldShapePlainStatementsWithoutLiterals() throws SQLException {
+        // Given
+        SqlStatementStats stats = SqlStatementStats.start();
+
+        // When
+        try (Connection connection = cut.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT name FROM product WHERE id = 1").close();
+            statement.executeQuery("SELECT name FROM product WHERE id = 2").close();
+        }
+
+        // Then
+        assertThat(stats.getRepeatedStatements(2)).containsExactly(entry("SELECT name FROM product WHERE id = ?", 2));
+    }
+
+    @Test
+    void shouldNotCountWhenNotRecording() throws SQLException {
+        // Given
+        SqlStatementStats stats = SqlStatementStats.start();
+        SqlStatementStats.stop();
+
+        // When
+        try (Connection connection = cut.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)) {
+            statement.setLong(1, 1);
+            statement.executeQuery().close();
+        }
+
+        // Then
+        assertThat(stats.getStatementCount()).isZero();
+    }
+}
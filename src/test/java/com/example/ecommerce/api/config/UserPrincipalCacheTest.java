@@ -0,0 +1,51 @@
+package com.example.ecommerce.api.config;
+
+import com.example.ecommerce.api.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPrincipalCacheTest {
+    private static final String EMAIL = "john@gmail.com";
+
+    @Test
+    void shouldLoadUserOnlyOnceWhileCached() {
+        // Given
+        UserPrincipalCache cut = new UserPrincipalCache(Duration.ofMinutes(5), 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cut.get(EMAIL, email -> loadUser(email, loads));
+        User user = cut.get(EMAIL, email -> loadUser(email, loads));
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(user.getEmail()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void shouldReloadUserAfterEviction() {
+        // Given
+        UserPrincipalCache cut = new UserPrincipalCache(Duration.ofMinutes(5), 10);
+        AtomicInteger loads = new AtomicInteger();
+        cut.get(EMAIL, email -> loadUser(email, loads));
+
+        // When
+        cut.evict(1L);
+        cut.get(EMAIL, email -> loadUser(email, loads));
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    private User loadUser(String email, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return User.builder()
+                .id(1L)
+                .email(email)
+                .build();
+    }
+}
@@ -4,6 +4,8 @@ import com.example.ecommerce.api.config.JwtService;
 import com.example.ecommerce.api.config.SecurityConfig;
 import com.example.ecommerce.api.config.UserAuthenticationEntryPoint;
 import com.example.ecommerce.api.config.WebSecurity;
+import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.TooManyRequestsException;
 import com.example.ecommerce.api.mapstruct.dto.user.AuthenticationRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.user.RegistrationRequestDto;
 import com.example.ecommerce.api.repository.UserRepository;
@@ -15,16 +17,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 
 import static com.example.ecommerce.api.ExceptionBodyResponseMatcher.exceptionMatcher;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuthenticationController.class)
@@ -115,6 +121,28 @@ class AuthenticationControllerTest {
         then(authenticationService).should().authenticate(any());
     }
 
+    @Test
+    void shouldReturn429WithRetryAfterWhenPasswordHashingIsSaturated() throws Exception {
+        // Given
+        AuthenticationRequestDto request = AuthenticationRequestDto.builder()
+                .email(EMAIL)
+                .password(PASSWORD)
+                .build();
+
+        given(authenticationService.authenticate(any()))
+                .willThrow(new TooManyRequestsException(ExceptionMessages.TOO_MANY_SIGN_INS, Duration.ofSeconds(2)));
+
+        // When
+        mockMvc.perform(post("/api/v1/signIn")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+
+        // Then
+        then(authenticationService).should().authenticate(any());
+    }
+
     @Test
     void shouldFailAuthenticationAndReturn422WhenInputIsInvalid() throws Exception {
         // Given
@@ -7,6 +7,8 @@ import com.example.ecommerce.api.config.WebSecurity;
 import com.example.ecommerce.api.mapstruct.dto.cart.AddToCartDto;
 import com.example.ecommerce.api.mapstruct.dto.cart.CartDto;
 import com.example.ecommerce.api.mapstruct.dto.cart.CartItemDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.CartOperationDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.UpdateCartDto;
 import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
 import com.example.ecommerce.api.entity.User;
 import com.example.ecommerce.api.entity.UserRole;
@@ -20,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -33,6 +36,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -156,6 +160,23 @@ class CartControllerTest {
         then(cartService).should().getAllCartProducts(user.getId());
     }
 
+    @Test
+    void shouldReturn304WithoutLoadingCartWhenETagMatches() throws Exception {
+        // Given
+        User user = getUser();
+
+        given(cartService.getCartVersion(user.getId())).willReturn("5d41402abc4b2a76b9719d911017c592");
+
+        // When
+        mockMvc.perform(get("/api/v1/cart")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"5d41402abc4b2a76b9719d911017c592\"")
+                .with(user(user)))
+                .andExpect(status().isNotModified());
+
+        // Then
+        then(cartService).should(never()).getAllCartProducts(user.getId());
+    }
+
     @Test
     void shouldNotGetCartItemsWhenUserIsUnauthenticated() throws Exception {
         // Given
@@ -168,6 +189,56 @@ class CartControllerTest {
         then(cartService).shouldHaveNoInteractions();
     }
 
+    // tests to apply several cart operations at once
+    @Test
+    void shouldApplyCartOperationsAndReturnResultingCart() throws Exception {
+        // Given
+        User user = getUser();
+        UpdateCartDto updateCartDto = UpdateCartDto.builder()
+                .operations(List.of(
+                        CartOperationDto.builder().op(CartOperationDto.Operation.ADD).productId(1L).quantity(2).build(),
+                        CartOperationDto.builder().op(CartOperationDto.Operation.REMOVE).productId(2L).build()))
+                .build();
+        CartDto cart = CartDto.builder()
+                .cartItems(List.of(podamFactory.manufacturePojo(CartItemDto.class)))
+                .build();
+
+        given(cartService.updateCart(updateCartDto, user)).willReturn(cart);
+
+        // When
+        mockMvc.perform(patch("/api/v1/cart")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateCartDto))
+                .with(user(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems.size()", Matchers.is(1)));
+
+        // Then
+        then(cartService).should().updateCart(updateCartDto, user);
+    }
+
+    @Test
+    void shouldReturn422WhenInvalidCartOperationIsProvided() throws Exception {
+        // Given
+        UpdateCartDto updateCartDto = UpdateCartDto.builder()
+                .operations(List.of(CartOperationDto.builder().productId(1L).quantity(-1).build()))
+                .build();
+
+        // When
+        mockMvc.perform(patch("/api/v1/cart")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateCartDto))
+                .with(user(USERNAME)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(exceptionMatcher()
+                        .containsError("operations[0].op", "must not be null"))
+                .andExpect(exceptionMatcher()
+                        .containsError("operations[0].quantity", "must be greater than or equal to 0"));
+
+        // Then
+        then(cartService).shouldHaveNoInteractions();
+    }
+
     // tests to update cart item
     @Test
     void shouldCallBusinessLogicToUpdateCartItem() throws Exception {
@@ -0,0 +1,143 @@
+package com.example.ecommerce.api.controller;
+
+import com.example.ecommerce.api.entity.Cart;
+import com.example.ecommerce.api.entity.Order;
+import com.example.ecommerce.api.entity.OrderItem;
+import com.example.ecommerce.api.entity.Product;
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import com.example.ecommerce.api.repository.EmbeddedPostgresConfig;
+import jakarta.persistence.EntityManager;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.ecommerce.api.SqlStatementMatcher.sqlStatements;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pins the SQL statements each endpoint runs, counted by the statement-counting data source and reported
+ * by the SQL statement filter, with the real services and repositories behind the controllers. Runs on
+ * PostgreSQL, so the counts are those of the production dialect and queries.
+ */
+@SpringBootTest(properties = "spring.flyway.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointStatementCountIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @BeforeAll
+    void setUp() {
+        user = transactionTemplate.execute(status -> {
+            User customer = User.builder()
+                    .firstName("John")
+                    .lastName("Doe")
+                    .email("john@gmail.com")
+                    .password("password")
+                    .role(UserRole.USER)
+                    .build();
+            entityManager.persist(customer);
+
+            // several rows of each, so a per-row query would show up in the count
+            List<Product> products = List.of(persistProduct("Phone"), persistProduct("Charger"), persistProduct("Case"));
+            LocalDateTime now = LocalDateTime.of(2023, 1, 10, 12, 0);
+            for (int i = 0; i < products.size(); i++) {
+                entityManager.persist(Cart.builder()
+                        .user(customer)
+                        .product(products.get(i))
+                        .quantity(i + 1)
+                        .dateCreated(now.minusHours(i))
+                        .build());
+
+                Order order = Order.builder()
+                        .user(customer)
+                        .dateCreated(now.minusDays(i))
+                        .totalPrice(300)
+                        .currency("EUR")
+                        .build();
+                for (Product product : products) {
+                    order.addOderItem(OrderItem.builder()
+                            .order(order)
+                            .product(product)
+                            .quantity(1)
+                            .price(product.getPrice())
+                            .build());
+                }
+                entityManager.persist(order);
+            }
+
+            return customer;
+        });
+    }
+
+    @Test
+    void getCartShouldReadVersionAndCartInTwoStatements() throws Exception {
+        // Given
+
+        // When
+        ResultActions result = mockMvc.perform(get("/api/v1/cart")
+                .with(user(user)));
+
+        // Then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems.size()", Matchers.is(3)))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Server-Timing", Matchers.endsWith("desc=\"2 statements\"")))
+                .andExpect(sqlStatements().count(2))
+                .andExpect(sqlStatements().noneRepeatedAtLeast(2));
+    }
+
+    @Test
+    void getOrdersShouldReadPageInOneStatement() throws Exception {
+        // Given
+
+        // When
+        ResultActions result = mockMvc.perform(get("/api/v1/orders")
+                .param("size", "2")
+                .with(user(user)));
+
+        // Then
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders.size()", Matchers.is(2)))
+                .andExpect(jsonPath("$.nextCursor", Matchers.notNullValue()))
+                .andExpect(header().string("Server-Timing", Matchers.endsWith("desc=\"1 statements\"")))
+                .andExpect(sqlStatements().count(1));
+    }
+
+    private Product persistProduct(String name) {
+        Product product = Product.builder()
+                .name(name)
+                .description(name + " description")
+                .imageUrl("https://example.com/" + name + ".png")
+                .price(100)
+                .currency("EUR")
+                .stockQuantity(100)
+                .build();
+        entityManager.persist(product);
+
+        return product;
+    }
+}
@@ -7,6 +7,8 @@ import com.example.ecommerce.api.config.WebSecurity;
 import com.example.ecommerce.api.entity.Order;
 import com.example.ecommerce.api.mapstruct.dto.order.OrderDto;
 import com.example.ecommerce.api.mapstruct.dto.order.OrderItemDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageRequestDto;
 import com.example.ecommerce.api.entity.User;
 import com.example.ecommerce.api.entity.UserRole;
 import com.example.ecommerce.api.repository.UserRepository;
@@ -24,6 +26,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -66,16 +69,49 @@ class OrderControllerTest {
         OrderDto orderDto = podamFactory.manufacturePojo(OrderDto.class);
 
 
-        given(orderService.getAllOrders(user)).willReturn(List.of(orderDto));
+        OrderPageRequestDto pageRequest = OrderPageRequestDto.builder()
+                .cursor("next")
+                .size(10)
+                .from(LocalDate.of(2023, 1, 1))
+                .to(LocalDate.of(2023, 1, 31))
+                .build();
+        OrderPageDto orderPage = OrderPageDto.builder()
+                .orders(List.of(orderDto))
+                .nextCursor("after")
+                .build();
+
+        given(orderService.getAllOrders(user, pageRequest)).willReturn(orderPage);
 
         // When
         mockMvc.perform(get("/api/v1/orders")
+                .param("cursor", "next")
+                .param("size", "10")
+                .param("from", "2023-01-01")
+                .param("to", "2023-01-31")
                 .with(user(user)))
-                .andExpect(jsonPath("$.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$.orders.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$.nextCursor", Matchers.is("after")))
                 .andExpect(status().isOk());
 
         // Then
-        then(orderService).should().getAllOrders(user);
+        then(orderService).should().getAllOrders(user, pageRequest);
+    }
+
+    @Test
+    void shouldNotReturnOrdersWhenPageSizeIsTooLarge() throws Exception {
+        // Given
+        User user = User.builder()
+                .role(UserRole.USER)
+                .build();
+
+        // When
+        mockMvc.perform(get("/api/v1/orders")
+                .param("size", String.valueOf(OrderPageRequestDto.MAX_PAGE_SIZE + 1))
+                .with(user(user)))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Then
+        then(orderService).shouldHaveNoInteractions();
     }
 
     @Test
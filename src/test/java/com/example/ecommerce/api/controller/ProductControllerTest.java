@@ -4,8 +4,16 @@ import com.example.ecommerce.api.config.JwtService;
 import com.example.ecommerce.api.config.SecurityConfig;
 import com.example.ecommerce.api.config.UserAuthenticationEntryPoint;
 import com.example.ecommerce.api.config.WebSecurity;
+import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.PreconditionFailedException;
 import com.example.ecommerce.api.mapstruct.dto.product.AddProductDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportErrorDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportResultDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.UpdateProductDto;
 import com.example.ecommerce.api.repository.UserRepository;
 import com.example.ecommerce.api.service.interfaces.IProductService;
@@ -17,19 +25,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -120,20 +135,186 @@ class ProductControllerTest {
         then(productService).shouldHaveNoInteractions();
     }
 
-    // return all products tests
+    // bulk import tests
     @Test
-    void shouldReturnAllProducts() throws Exception {
+    void shouldImportProductsFromJsonAndReturnReport() throws Exception {
+        // Given
+        ProductImportResultDto result = ProductImportResultDto.builder()
+                .imported(1)
+                .rejected(1)
+                .errors(List.of(new ProductImportErrorDto(2, "name", "must not be blank")))
+                .build();
+        given(productService.importProductsFromJson(any(InputStream.class))).willReturn(result);
+
+        // When
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                        .with(user(USERNAME).roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", Matchers.is(1)))
+                .andExpect(jsonPath("$.errors[0].row", Matchers.is(2)))
+                .andExpect(jsonPath("$.errors[0].field", Matchers.is("name")));
+
+        // Then
+        then(productService).should().importProductsFromJson(any(InputStream.class));
+    }
+
+    @Test
+    void shouldImportProductsFromCsv() throws Exception {
+        // Given
+        given(productService.importProductsFromCsv(any(InputStream.class)))
+                .willReturn(new ProductImportResultDto(0, 0, List.of()));
+
+        // When
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .contentType("text/csv")
+                        .content("name,description,imageUrl,price,stockQuantity\n")
+                        .with(user(USERNAME).roles("MANAGER")))
+                .andExpect(status().isOk());
+
+        // Then
+        then(productService).should().importProductsFromCsv(any(InputStream.class));
+    }
+
+    @Test
+    void shouldReturn403WhenUserDoesNotHavePermissionToImportProducts() throws Exception {
+        // When
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                        .with(user(USERNAME).roles("USER")))
+                .andExpect(status().isForbidden());
+
+        // Then
+        then(productService).shouldHaveNoInteractions();
+    }
+
+    // return page of products tests
+    @Test
+    void shouldReturnPageOfProducts() throws Exception {
         // Given
         ProductResponseDto product = podamFactory.manufacturePojo(ProductResponseDto.class);
-        given(productService.getProducts()).willReturn(List.of(product));
+        ProductPageDto page = ProductPageDto.builder()
+                .products(List.of(product))
+                .nextCursor("MQ")
+                .build();
+        given(productService.getProducts(any(ProductPageRequestDto.class))).willReturn(page);
+
+        // When
+        mockMvc.perform(get("/api/v1/products")
+                .param("size", "1")
+                .param("minPrice", "5")
+                .param("inStock", "true"))
+                .andExpect(jsonPath("$.products.size()", Matchers.is(1)))
+                .andExpect(jsonPath("$.nextCursor", Matchers.is("MQ")))
+                .andExpect(status().isOk());
+
+        // Then
+        ProductPageRequestDto expectedRequest = ProductPageRequestDto.builder()
+                .size(1)
+                .minPrice(5L)
+                .inStock(true)
+                .build();
+        then(productService).should().getProducts(expectedRequest);
+    }
+
+    @Test
+    void shouldUseDefaultPageSizeWhenNoneIsGiven() throws Exception {
+        // Given
+        given(productService.getProducts(any(ProductPageRequestDto.class))).willReturn(new ProductPageDto());
 
         // When
         mockMvc.perform(get("/api/v1/products"))
-                .andExpect(jsonPath("$.size()", Matchers.is(1)))
                 .andExpect(status().isOk());
 
         // Then
-        then(productService).should().getProducts();
+        then(productService).should().getProducts(new ProductPageRequestDto(null,
+                ProductPageRequestDto.DEFAULT_PAGE_SIZE, null, null, false));
+    }
+
+    @Test
+    void shouldNotReturnProductsWhenPageSizeIsTooLarge() throws Exception {
+        // Given
+        int size = ProductPageRequestDto.MAX_PAGE_SIZE + 1;
+
+        // When
+        mockMvc.perform(get("/api/v1/products")
+                .param("size", String.valueOf(size)))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Then
+        then(productService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldNotReturnProductsWhenMinPriceIsAboveMaxPrice() throws Exception {
+        // Given
+
+        // When
+        mockMvc.perform(get("/api/v1/products")
+                .param("minPrice", "50")
+                .param("maxPrice", "10"))
+                .andExpect(jsonPath("$.errors[0].field", Matchers.is("maxPrice")))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Then
+        then(productService).shouldHaveNoInteractions();
+    }
+
+    // search products tests
+    @Test
+    void shouldSearchProductsWithDefaultPaging() throws Exception {
+        // Given
+        ProductResponseDto product = podamFactory.manufacturePojo(ProductResponseDto.class);
+        given(productService.searchProducts(any(ProductSearchRequestDto.class)))
+                .willReturn(new ProductSearchPageDto(List.of(product), 1));
+
+        // When
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "wireless charger"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id", Matchers.is(product.getId())))
+                .andExpect(jsonPath("$.nextPage", Matchers.is(1)));
+
+        // Then
+        then(productService).should().searchProducts(new ProductSearchRequestDto("wireless charger", 0,
+                ProductPageRequestDto.DEFAULT_PAGE_SIZE));
+    }
+
+    @Test
+    void shouldNotSearchProductsWithoutQuery() throws Exception {
+        // When
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", " "))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Then
+        then(productService).shouldHaveNoInteractions();
+    }
+
+    // export products tests
+    @Test
+    void shouldStreamProductsAsNewlineDelimitedJson() throws Exception {
+        // Given
+        willAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(productService).exportProducts(any(OutputStream.class));
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
+
+        // Then
+        then(productService).should().exportProducts(any(OutputStream.class));
     }
 
     // return single product tests
@@ -154,6 +335,59 @@ class ProductControllerTest {
         then(productService).should().getProduct(product.getId());
     }
 
+    @Test
+    void shouldReturnProductVersionAsETag() throws Exception {
+        // Given
+        ProductResponseDto product = podamFactory.manufacturePojo(ProductResponseDto.class);
+
+        given(productService.getProductVersion(product.getId())).willReturn(3L);
+        given(productService.getProduct(product.getId())).willReturn(product);
+
+        // When
+        mockMvc.perform(get("/api/v1/products/{productId}", product.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(status().isOk());
+
+        // Then
+        then(productService).should().getProduct(product.getId());
+    }
+
+    @Test
+    void shouldReturn304WithoutLoadingProductWhenETagMatches() throws Exception {
+        // Given
+        long productId = 1L;
+
+        given(productService.getProductVersion(productId)).willReturn(3L);
+
+        // When
+        mockMvc.perform(get("/api/v1/products/{productId}", productId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Then
+        then(productService).should(never()).getProduct(productId);
+    }
+
+    @Test
+    void shouldReturnProductWhenETagIsStale() throws Exception {
+        // Given
+        ProductResponseDto product = podamFactory.manufacturePojo(ProductResponseDto.class);
+
+        given(productService.getProductVersion(product.getId())).willReturn(4L);
+        given(productService.getProduct(product.getId())).willReturn(product);
+
+        // When
+        mockMvc.perform(get("/api/v1/products/{productId}", product.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(status().isOk());
+
+        // Then
+        then(productService).should().getProduct(product.getId());
+    }
+
     @Test
     void shouldNotReturnProductIfInvalidProductIdGiven() throws Exception {
         // Given
@@ -181,7 +415,61 @@ class ProductControllerTest {
                 .andExpect(status().isNoContent());
 
         // Then
-        then(productService).should().updateProduct(product.getId(), product);
+        then(productService).should().updateProduct(product.getId(), product, null);
+    }
+
+    @Test
+    void shouldPassIfMatchVersionToUpdate() throws Exception {
+        // Given
+        UpdateProductDto product = podamFactory.manufacturePojo(UpdateProductDto.class);
+
+        // When
+        mockMvc.perform(put("/api/v1/products/{productId}", product.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product))
+                .with(user(USERNAME).roles("MANAGER")))
+                .andExpect(status().isNoContent());
+
+        // Then
+        then(productService).should().updateProduct(product.getId(), product, 3L);
+    }
+
+    @Test
+    void shouldReturn412WhenProductWasModifiedConcurrently() throws Exception {
+        // Given
+        UpdateProductDto product = podamFactory.manufacturePojo(UpdateProductDto.class);
+
+        willThrow(new PreconditionFailedException(ExceptionMessages.PRODUCT_MODIFIED))
+                .given(productService).updateProduct(product.getId(), product, 3L);
+
+        // When
+        mockMvc.perform(put("/api/v1/products/{productId}", product.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product))
+                .with(user(USERNAME).roles("MANAGER")))
+                .andExpect(status().isPreconditionFailed());
+
+        // Then
+        then(productService).should().updateProduct(product.getId(), product, 3L);
+    }
+
+    @Test
+    void shouldReturn412WithoutUpdatingWhenIfMatchIsNotAProductETag() throws Exception {
+        // Given
+        UpdateProductDto product = podamFactory.manufacturePojo(UpdateProductDto.class);
+
+        // When
+        mockMvc.perform(put("/api/v1/products/{productId}", product.getId())
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product))
+                .with(user(USERNAME).roles("MANAGER")))
+                .andExpect(status().isPreconditionFailed());
+
+        // Then
+        then(productService).shouldHaveNoInteractions();
     }
 
     @Test
@@ -0,0 +1,97 @@
+package com.example.ecommerce.api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+class CartRepositoryBatchIT {
+
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private long userId;
+    private long phoneId;
+    private long chargerId;
+
+    @BeforeEach
+    void setUp() {
+        userId = jdbcTemplate.queryForObject("""
+                INSERT INTO _user (first_name, last_name, email, password, role)
+                VALUES ('John', 'Doe', 'john@gmail.com', 'password', 'USER')
+                RETURNING id
+                """, Long.class);
+        phoneId = insertProduct(10);
+        chargerId = insertProduct(3);
+        insertCartItem(phoneId, 2);
+        insertCartItem(chargerId, 1);
+    }
+
+    @Test
+    void shouldSetAddAndRemoveCartQuantities() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        long caseId = insertProduct(5);
+
+        // When
+        cartRepository.removeProducts(userId, List.of(chargerId));
+        List<Long> rejectedSets = cartRepository.setQuantities(userId, Map.of(phoneId, 7L), now);
+        List<Long> rejectedAdds = cartRepository.addQuantities(userId, Map.of(phoneId, 1L, caseId, 2L), now);
+
+        // Then
+        assertThat(rejectedSets).isEmpty();
+        assertThat(rejectedAdds).isEmpty();
+        assertThat(quantities()).containsExactlyInAnyOrderEntriesOf(Map.of(phoneId, 8L, caseId, 2L));
+    }
+
+    @Test
+    void shouldRejectMissingProductsAndQuantitiesAboveStock() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When
+        List<Long> rejectedSets = cartRepository.setQuantities(userId, Map.of(phoneId, 11L, Long.MAX_VALUE, 1L), now);
+        List<Long> rejectedAdds = cartRepository.addQuantities(userId, Map.of(chargerId, 3L), now);
+
+        // Then
+        assertThat(rejectedSets).containsExactlyInAnyOrder(phoneId, Long.MAX_VALUE);
+        assertThat(rejectedAdds).containsExactly(chargerId);
+        assertThat(quantities()).containsExactlyInAnyOrderEntriesOf(Map.of(phoneId, 2L, chargerId, 1L));
+    }
+
+    private Map<Long, Long> quantities() {
+        return jdbcTemplate.query("SELECT product_id, quantity FROM cart WHERE user_id = ?",
+                rs -> {
+                    Map<Long, Long> quantities = new HashMap<>();
+                    while (rs.next()) quantities.put(rs.getLong("product_id"), rs.getLong("quantity"));
+                    return quantities;
+                }, userId);
+    }
+
+    private long insertProduct(long stockQuantity) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO product (name, description, image_url, price, currency, stock_quantity)
+                VALUES ('Phone', 'Description', 'https://example.com/phone.png', 100, 'EUR', ?)
+                RETURNING id
+                """, Long.class, stockQuantity);
+    }
+
+    private void insertCartItem(long productId, long quantity) {
+        jdbcTemplate.update("INSERT INTO cart (user_id, product_id, quantity, date_created) VALUES (?, ?, ?, now())",
+                userId, productId, quantity);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.ecommerce.api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartRepositoryUpsertIT {
+
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 50;
+
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private long userId;
+    private long productId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM cart");
+        userId = jdbcTemplate.queryForObject("""
+                INSERT INTO _user (first_name, last_name, email, password, role)
+                VALUES ('John', 'Doe', gen_random_uuid() || '@gmail.com', 'password', 'USER')
+                RETURNING id
+                """, Long.class);
+        productId = insertProduct(THREADS * ADDS_PER_THREAD);
+    }
+
+    @Test
+    void shouldNotLoseIncrementsWhenTheSameProductIsAddedConcurrently() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<List<Long>> adds = () -> {
+            start.await();
+            List<Long> cartIds = new ArrayList<>();
+            for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                cartIds.add(transactionTemplate.execute(status ->
+                        cartRepository.upsert(userId, productId, 1, LocalDateTime.now()).orElseThrow()));
+            }
+            return cartIds;
+        };
+
+        // When
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) futures.add(executor.submit(adds));
+            start.countDown();
+
+            // Then
+            for (Future<List<Long>> future : futures) {
+                assertThat(future.get()).containsOnly(futures.get(0).get().get(0));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM cart WHERE user_id = ? AND product_id = ?",
+                Long.class, userId, productId))
+                .containsExactly((long) THREADS * ADDS_PER_THREAD);
+    }
+
+    @Test
+    void shouldNotAddMoreThanIsInStock() {
+        // Given
+        long scarceProductId = insertProduct(3);
+
+        // When
+        Optional<Long> first = transactionTemplate.execute(status ->
+                cartRepository.upsert(userId, scarceProductId, 2, LocalDateTime.now()));
+        Optional<Long> second = transactionTemplate.execute(status ->
+                cartRepository.upsert(userId, scarceProductId, 2, LocalDateTime.now()));
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(second).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM cart WHERE id = ?", Long.class, first.get()))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotInsertAnythingForMissingProduct() {
+        // When
+        Optional<Long> cartId = transactionTemplate.execute(status ->
+                cartRepository.upsert(userId, Long.MAX_VALUE, 1, LocalDateTime.now()));
+
+        // Then
+        assertThat(cartId).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart", Long.class)).isZero();
+    }
+
+    private long insertProduct(long stockQuantity) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO product (name, description, image_url, price, currency, stock_quantity)
+                VALUES ('Phone', 'Description', 'https://example.com/phone.png', 100, 'EUR', ?)
+                RETURNING id
+                """, Long.class, stockQuantity);
+    }
+}
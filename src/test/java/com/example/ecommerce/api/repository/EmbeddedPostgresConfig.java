@@ -0,0 +1,28 @@
+package com.example.ecommerce.api.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A throwaway PostgreSQL server for integration tests that depend on PostgreSQL behaviour (plans, upserts,
+ * locking) which H2 does not reproduce. Use together with
+ * {@code @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)}.
+ */
+@TestConfiguration
+public class EmbeddedPostgresConfig {
+
+    @Bean(destroyMethod = "close")
+    EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+        return embeddedPostgres.getPostgresDatabase(Map.of("reWriteBatchedInserts", "true"));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.ecommerce.api.repository;
+
+import com.example.ecommerce.api.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query against PostgreSQL with large seeded tables and fails when a plan reads a
+ * whole table. The schema is the one Hibernate generates from the entities, the same as at runtime, so the
+ * indexes checked here are the ones declared on the entities.
+ * <p>
+ * Plans are taken with {@code plan_cache_mode = force_generic_plan}, so they do not depend on the parameter
+ * values a test happens to use.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.ecommerce.api.repository.RepositoryIndexUsageIT$RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryIndexUsageIT {
+
+    private static final int USERS = 10_000;
+    private static final int PRODUCTS = 10_000;
+    private static final int CART_ITEMS_PER_USER = 10;
+    private static final int ORDERS_PER_USER = 10;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO _user (first_name, last_name, email, password, role)
+                SELECT 'John', 'Doe', 'user' || i || '@example.com', 'password', 'USER'
+                FROM generate_series(1, ?) i
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO product (name, description, image_url, price, currency, stock_quantity)
+                SELECT 'Product ' || i, 'Description', 'https://example.com/' || i, i % 100, 'EUR', i % 50
+                FROM generate_series(1, ?) i
+                """, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO cart (user_id, product_id, quantity, date_created)
+                SELECT u, (u * 7 + c) % ? + 1, 1, now() - c * interval '1 hour'
+                FROM generate_series(1, ?) u, generate_series(1, ?) c
+                """, PRODUCTS, USERS, CART_ITEMS_PER_USER);
+        jdbcTemplate.update("""
+                INSERT INTO _order (id, user_id, date_created, total_price, currency)
+                SELECT (u - 1) * ? + o, u, now() - o * interval '1 day', 100, 'EUR'
+                FROM generate_series(1, ?) u, generate_series(1, ?) o
+                """, ORDERS_PER_USER, USERS, ORDERS_PER_USER);
+        jdbcTemplate.update("""
+                INSERT INTO order_item (id, order_id, product_id, quantity, price, stock_applied)
+                SELECT (o.id - 1) * ? + i, o.id, (o.id * 3 + i) % ? + 1, 1, 10, true
+                FROM _order o, generate_series(1, ?) i
+                """, ITEMS_PER_ORDER, PRODUCTS, ITEMS_PER_ORDER);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @BeforeEach
+    void clearRecordedStatements() {
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void cartQueriesShouldUseIndexes() {
+        User user = entityManager.getReference(User.class, 1L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cartRepository.upsert(1L, 1L, 1, LocalDateTime.now());
+            status.setRollbackOnly();
+        });
+        cartRepository.findByIdAndUser(1L, user);
+        cartRepository.findAllWithProductByUserId(1L);
+        cartRepository.findCartViewByUserId(1L);
+
+        assertNoSequentialScans();
+    }
+
+    @Test
+    void orderQueriesShouldUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+
+        orderRepository.findPageBefore(1L, now.minusYears(1), now, Long.MAX_VALUE, PageRequest.of(0, 21));
+        orderItemRepository.findAllWithProductByOrderIdAndUserId(1L, 1L);
+
+        assertNoSequentialScans();
+    }
+
+    @Test
+    void hotProductFlushShouldUseIndexes() {
+        // a JdbcTemplate statement, so the inspector does not see it
+        RecordingStatementInspector.STATEMENTS.add(ProductRepositoryImpl.APPLY_PENDING_STOCK_SQL);
+
+        assertNoSequentialScans();
+    }
+
+    @Test
+    void productQueriesShouldUseIndexes() {
+        productRepository.findById(1L);
+        productRepository.findPageAfter(0L, 0, Long.MAX_VALUE, false, PageRequest.of(0, 21));
+        productRepository.search("product", 21, 0);
+
+        assertNoSequentialScans();
+    }
+
+    @Test
+    void userQueriesShouldUseIndexes() {
+        userRepository.findByEmail("user1@example.com");
+
+        assertNoSequentialScans();
+    }
+
+    private void assertNoSequentialScans() {
+        List<String> statements = new ArrayList<>(RecordingStatementInspector.STATEMENTS);
+        assertThat(statements).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = explainGenericPlan(sql);
+            assertThat(plan).as("plan of %s", sql).doesNotContain("Seq Scan");
+        }
+    }
+
+    // PREPARE with $n placeholders and a forced generic plan; NULLs are fine since the values are not used
+    private String explainGenericPlan(String sql) {
+        StringBuilder prepared = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') prepared.append('$').append(++parameters);
+            else prepared.append(c);
+        }
+
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < parameters; i++) arguments.add("NULL");
+
+        String executeArguments = parameters == 0 ? "" : "(" + String.join(", ", arguments) + ")";
+
+        // the prepared statement only exists on the connection that prepared it
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE repository_query AS " + prepared);
+
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN EXECUTE repository_query" + executeArguments)) {
+                    while (rs.next()) plan.add(rs.getString(1));
+                }
+                statement.execute("DEALLOCATE repository_query");
+
+                return String.join("\n", plan);
+            }
+        });
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.ecommerce.api.service;
+
+import com.example.ecommerce.api.entity.Cart;
+import com.example.ecommerce.api.entity.Product;
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import com.example.ecommerce.api.mapstruct.dto.cart.CartDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.CartItemDto;
+import com.example.ecommerce.api.mapstruct.mappers.CartMapperImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.mapping-resources=META-INF/h2-orm.xml",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({CartService.class, CartMapperImpl.class})
+class CartServiceStatementCountTest {
+
+    @Autowired
+    private CartService cut;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .password("password")
+                .role(UserRole.USER)
+                .build();
+        entityManager.persist(user);
+
+        LocalDateTime now = LocalDateTime.of(2023, 1, 10, 12, 0);
+        persistCartItem(persistProduct("Phone", 100), 1, now);
+        persistCartItem(persistProduct("Charger", 20), 2, now.minusHours(1));
+        persistCartItem(persistProduct("Case", 15), 3, now.minusHours(2));
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadCartWithTotalInOneStatement() {
+        // Given
+
+        // When
+        CartDto cart = cut.getAllCartProducts(user.getId());
+
+        // Then
+        assertThat(cart.getCartItems()).extracting(cartItem -> cartItem.getProduct().getName())
+                .containsExactly("Phone", "Charger", "Case");
+        assertThat(cart.getCartItems()).extracting(CartItemDto::getQuantity).containsExactly(1L, 2L, 3L);
+        assertThat(cart.getTotalCost()).isEqualTo(185);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnZeroTotalForEmptyCart() {
+        // Given
+
+        // When
+        CartDto cart = cut.getAllCartProducts(user.getId() + 1);
+
+        // Then
+        assertThat(cart.getCartItems()).isNull();
+        assertThat(cart.getTotalCost()).isZero();
+    }
+
+    private Product persistProduct(String name, long price) {
+        Product product = Product.builder()
+                .name(name)
+                .description(name + " description")
+                .imageUrl("https://example.com/" + name + ".png")
+                .price(price)
+                .currency("EUR")
+                .stockQuantity(100)
+                .build();
+        entityManager.persist(product);
+
+        return product;
+    }
+
+    private void persistCartItem(Product product, long quantity, LocalDateTime dateCreated) {
+        entityManager.persist(Cart.builder()
+                .user(user)
+                .product(product)
+                .quantity(quantity)
+                .dateCreated(dateCreated)
+                .build());
+    }
+}
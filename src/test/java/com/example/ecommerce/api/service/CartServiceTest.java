@@ -1,12 +1,14 @@
 package com.example.ecommerce.api.service;
 
 import com.example.ecommerce.api.mapstruct.dto.cart.AddToCartDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.CartOperationDto;
+import com.example.ecommerce.api.mapstruct.dto.cart.UpdateCartDto;
 import com.example.ecommerce.api.entity.Cart;
-import com.example.ecommerce.api.entity.Product;
 import com.example.ecommerce.api.entity.User;
 import com.example.ecommerce.api.entity.UserRole;
 import com.example.ecommerce.api.exception.CartItemNotFoundException;
 import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.InsufficientStockException;
 import com.example.ecommerce.api.exception.ProductNotFoundException;
 import com.example.ecommerce.api.mapstruct.mappers.CartMapper;
 import com.example.ecommerce.api.repository.CartRepository;
@@ -21,6 +23,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -60,77 +65,61 @@ class CartServiceTest {
         cut.getAllCartProducts(userId);
 
         // Then
-        then(cartRepository).should().findAllByUser_IdOrderByDateCreatedDesc(userId);
+        then(cartRepository).should().findCartViewByUserId(userId);
     }
 
     // tests to add product to shopping user's shopping cart
     @Test
-    void shouldAddProductToShoppingCartIfIsNotThere() {
+    void shouldAddProductToShoppingCartInOneStatement() {
         // Given
         AddToCartDto addToCartDto = podamFactory.manufacturePojo(AddToCartDto.class);
-        Product product = podamFactory.manufacturePojo(Product.class);
-        product.setId(addToCartDto.getProductId());
-
         User user = User.builder()
                 .id(1L)
                 .role(UserRole.USER)
                 .build();
 
-        given(productRepository.findById(addToCartDto.getProductId())).willReturn(Optional.of(product));
-        given(cartRepository.findByUserAndProduct(user, product)).willReturn(Optional.empty());
-        given(cartRepository.save(any(Cart.class))).willAnswer(invocation -> {
-            Cart savedCart = invocation.getArgument(0);
-            savedCart.setId(1L);
-            return savedCart;
-        });
+        given(cartRepository.upsert(eq(user.getId()), eq(addToCartDto.getProductId()),
+                eq((long) addToCartDto.getQuantity()), any(LocalDateTime.class))).willReturn(Optional.of(1L));
 
         // When
         long cartId = cut.addProduct(addToCartDto, user);
 
         // Then
-        then(cartRepository).should().save(any(Cart.class));
         assertThat(cartId).isEqualTo(1L);
-
+        then(productRepository).shouldHaveNoInteractions();
     }
 
     @Test
-    void shouldIncrementProductCountIfAlreadyInShoppingCart() {
+    void shouldThrowInsufficientStockExceptionWhenAddingMoreThanInStock() {
         // Given
-        AddToCartDto addToCartDto = podamFactory.manufacturePojo(AddToCartDto.class);
-        Product product = podamFactory.manufacturePojo(Product.class);
-        product.setId(addToCartDto.getProductId());
-        User user = User.builder()
-                .id(1L)
-                .role(UserRole.USER)
-                .build();
-
-        Cart cart = Cart.builder()
-                .id(1L)
+        AddToCartDto addToCartDto = AddToCartDto.builder()
+                .productId(1L)
+                .quantity(2)
                 .build();
+        User user = User.builder().id(1L).build();
 
-        given(productRepository.findById(addToCartDto.getProductId())).willReturn(Optional.of(product));
-        given(cartRepository.findByUserAndProduct(user, product)).willReturn(Optional.of(cart));
-        given(cartRepository.save(cart)).willAnswer(invocation -> {
-            Cart savedCart = invocation.getArgument(0);
-            savedCart.setId(1L);
-            return savedCart;
-        });
+        given(cartRepository.upsert(eq(1L), eq(1L), eq(2L), any(LocalDateTime.class))).willReturn(Optional.empty());
+        given(productRepository.existsById(1L)).willReturn(true);
 
         // When
-        long cartId = cut.addProduct(addToCartDto, user);
+        assertThatThrownBy(() -> cut.addProduct(addToCartDto, user))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage(ExceptionMessages.INSUFFICIENT_STOCK);
 
         // Then
-        then(cartRepository).should().save(cart);
-
+        then(cartRepository).should(never()).save(any());
     }
+
     @Test
     void shouldThrowProductNotFoundExceptionWhenAddingNonExistingProduct() {
         // Given
         AddToCartDto addToCartDto = AddToCartDto.builder()
                         .productId(1L)
+                        .quantity(1)
                         .build();
-        User user = User.builder().build();
-        given(productRepository.findById(1L)).willReturn(Optional.empty());
+        User user = User.builder().id(1L).build();
+        given(cartRepository.upsert(eq(1L), eq(1L), eq(1L), any(LocalDateTime.class))).willReturn(Optional.empty());
+        given(productRepository.existsById(1L)).willReturn(false);
 
         // When
         assertThatThrownBy(() -> cut.addProduct(addToCartDto, user))
@@ -138,7 +127,83 @@ class CartServiceTest {
                 .hasMessage(ExceptionMessages.PRODUCT_NOT_FOUND);
 
         // Then
-        then(cartRepository).shouldHaveNoInteractions();
+        then(cartRepository).should(never()).save(any());
+    }
+
+    // tests to apply several cart operations at once
+    @Test
+    void shouldFoldCartOperationsIntoOneBatchPerKind() {
+        // Given
+        User user = User.builder().id(1L).build();
+        UpdateCartDto updateCartDto = UpdateCartDto.builder()
+                .operations(List.of(
+                        operation(CartOperationDto.Operation.ADD, 1L, 1),
+                        operation(CartOperationDto.Operation.ADD, 1L, 2),
+                        operation(CartOperationDto.Operation.SET, 2L, 5),
+                        operation(CartOperationDto.Operation.ADD, 2L, 1),
+                        operation(CartOperationDto.Operation.ADD, 3L, 4),
+                        operation(CartOperationDto.Operation.REMOVE, 3L, 0),
+                        operation(CartOperationDto.Operation.SET, 4L, 0)))
+                .build();
+
+        given(cartRepository.setQuantities(eq(1L), eq(Map.of(2L, 6L)), any(LocalDateTime.class)))
+                .willReturn(List.of());
+        given(cartRepository.addQuantities(eq(1L), eq(Map.of(1L, 3L)), any(LocalDateTime.class)))
+                .willReturn(List.of());
+
+        // When
+        cut.updateCart(updateCartDto, user);
+
+        // Then
+        then(cartRepository).should().removeProducts(1L, List.of(3L, 4L));
+        then(cartRepository).should().findCartViewByUserId(1L);
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldThrowProductNotFoundExceptionWhenCartOperationTargetsMissingProduct() {
+        // Given
+        User user = User.builder().id(1L).build();
+        UpdateCartDto updateCartDto = UpdateCartDto.builder()
+                .operations(List.of(operation(CartOperationDto.Operation.SET, 1L, 2)))
+                .build();
+
+        given(cartRepository.setQuantities(eq(1L), eq(Map.of(1L, 2L)), any(LocalDateTime.class)))
+                .willReturn(List.of(1L));
+        given(cartRepository.addQuantities(eq(1L), eq(Map.of()), any(LocalDateTime.class)))
+                .willReturn(List.of());
+        given(productRepository.existsById(1L)).willReturn(false);
+
+        // When
+        assertThatThrownBy(() -> cut.updateCart(updateCartDto, user))
+                .isInstanceOf(ProductNotFoundException.class)
+                .hasMessage(ExceptionMessages.PRODUCT_NOT_FOUND);
+
+        // Then
+        then(cartRepository).should(never()).findCartViewByUserId(1L);
+    }
+
+    @Test
+    void shouldThrowInsufficientStockExceptionWhenCartOperationExceedsStock() {
+        // Given
+        User user = User.builder().id(1L).build();
+        UpdateCartDto updateCartDto = UpdateCartDto.builder()
+                .operations(List.of(operation(CartOperationDto.Operation.ADD, 1L, 2)))
+                .build();
+
+        given(cartRepository.setQuantities(eq(1L), eq(Map.of()), any(LocalDateTime.class)))
+                .willReturn(List.of());
+        given(cartRepository.addQuantities(eq(1L), eq(Map.of(1L, 2L)), any(LocalDateTime.class)))
+                .willReturn(List.of(1L));
+        given(productRepository.existsById(1L)).willReturn(true);
+
+        // When
+        assertThatThrownBy(() -> cut.updateCart(updateCartDto, user))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage(ExceptionMessages.INSUFFICIENT_STOCK);
+
+        // Then
+        then(cartRepository).should(never()).findCartViewByUserId(1L);
     }
 
     // tests to update user's shopping cart
@@ -246,4 +311,12 @@ class CartServiceTest {
     }
 
 
-}
\ No newline at end of file
+
+    private static CartOperationDto operation(CartOperationDto.Operation op, long productId, long quantity) {
+        return CartOperationDto.builder()
+                .op(op)
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+}
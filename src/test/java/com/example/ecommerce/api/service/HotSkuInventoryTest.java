@@ -0,0 +1,106 @@
+package com.example.ecommerce.api.service;
+
+import com.example.ecommerce.api.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+class HotSkuInventoryTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    void shouldApplyPendingStockBeforeLoadingCounters() {
+        // Given
+        HotSkuInventory cut = new HotSkuInventory(productRepository, true, Set.of(1L), 4);
+        given(productRepository.findStockQuantities(Set.of(1L))).willReturn(Map.of(1L, 10L));
+
+        // When
+        cut.afterSingletonsInstantiated();
+
+        // Then
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).applyPendingStock();
+        inOrder.verify(productRepository).findStockQuantities(Set.of(1L));
+        assertThat(cut.isHot(1L)).isTrue();
+        assertThat(cut.isHot(2L)).isFalse();
+        assertThat(cut.available(1L)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldLeaveStoredStockAloneWhenDisabled() {
+        // Given
+        HotSkuInventory cut = new HotSkuInventory(productRepository, false, Set.of(1L), 4);
+
+        // When
+        cut.afterSingletonsInstantiated();
+        cut.flush();
+
+        // Then
+        then(productRepository).shouldHaveNoInteractions();
+        assertThat(cut.isHot(1L)).isFalse();
+    }
+
+    @Test
+    void shouldReserveAllOrNothing() {
+        // Given
+        HotSkuInventory cut = new HotSkuInventory(productRepository, true, Set.of(1L, 2L), 4);
+        given(productRepository.findStockQuantities(Set.of(1L, 2L))).willReturn(Map.of(1L, 5L, 2L, 1L));
+        cut.afterSingletonsInstantiated();
+
+        // When
+        boolean reserved = cut.reserve(Map.of(1L, 3L, 2L, 2L));
+
+        // Then
+        assertThat(reserved).isFalse();
+        assertThat(cut.available(1L)).isEqualTo(5);
+        assertThat(cut.available(2L)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNeverOversellUnderContention() throws Exception {
+        // Given
+        long stock = 1_000;
+        HotSkuInventory cut = new HotSkuInventory(productRepository, true, Set.of(1L), 8);
+        given(productRepository.findStockQuantities(Set.of(1L))).willReturn(Map.of(1L, stock));
+        cut.afterSingletonsInstantiated();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // When
+        Callable<Long> checkout = () -> IntStream.range(0, 200)
+                .filter(i -> cut.reserve(Map.of(1L, i % 3 + 1L)))
+                .mapToLong(i -> i % 3 + 1L)
+                .sum();
+        long sold = 0;
+        try {
+            for (Future<Long> future : executor.invokeAll(Collections.nCopies(16, checkout))) {
+                sold += future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(sold).isLessThanOrEqualTo(stock);
+        assertThat(cut.available(1L)).isEqualTo(stock - sold);
+        // 16 threads asking for far more than is available must drain the counter completely
+        assertThat(cut.available(1L)).isLessThan(3);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.ecommerce.api.service;
+
+import com.example.ecommerce.api.config.MoneyProperties;
+import com.example.ecommerce.api.entity.Order;
+import com.example.ecommerce.api.entity.OrderItem;
+import com.example.ecommerce.api.entity.Product;
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderItemDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageRequestDto;
+import com.example.ecommerce.api.mapstruct.mappers.OrderMapperImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.mapping-resources=META-INF/h2-orm.xml",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderService.class, OrderMapperImpl.class, HotSkuInventory.class, MoneyProperties.class})
+class OrderServiceStatementCountTest {
+
+    @Autowired
+    private OrderService cut;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private User user;
+    private long orderId;
+    private List<LocalDateTime> dates;
+
+    @BeforeEach
+    void setUp() {
+        user = persistUser();
+        List<Product> products = List.of(persistProduct("Phone"), persistProduct("Charger"), persistProduct("Case"));
+
+        // a few orders with several items each, enough for per-row lazy loads to show up in the count
+        LocalDateTime now = LocalDateTime.of(2023, 1, 10, 12, 0);
+        dates = List.of(now, now.minusDays(1), now.minusDays(2));
+        for (LocalDateTime dateCreated : dates) {
+            Order order = Order.builder()
+                    .user(user)
+                    .dateCreated(dateCreated)
+                    .totalPrice(100)
+                    .currency("EUR")
+                    .build();
+
+            for (Product product : products) {
+                order.addOderItem(OrderItem.builder()
+                        .order(order)
+                        .product(product)
+                        .quantity(1)
+                        .price(product.getPrice())
+                        .build());
+            }
+            entityManager.persist(order);
+            orderId = order.getId();
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadOrderHistoryInOneStatement() {
+        // Given
+        OrderPageRequestDto pageRequest = OrderPageRequestDto.builder().size(2).build();
+
+        // When
+        OrderPageDto orderPage = cut.getAllOrders(user, pageRequest);
+
+        // Then
+        assertThat(orderPage.getOrders()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPageThroughOrderHistoryWithCursor() {
+        // Given
+        OrderPageRequestDto firstPageRequest = OrderPageRequestDto.builder().size(2).build();
+
+        // When
+        OrderPageDto firstPage = cut.getAllOrders(user, firstPageRequest);
+        OrderPageDto secondPage = cut.getAllOrders(user, OrderPageRequestDto.builder()
+                .cursor(firstPage.getNextCursor())
+                .size(2)
+                .build());
+
+        // Then
+        assertThat(firstPage.getOrders()).extracting(OrderDto::getDateCreated)
+                .containsExactly(dates.get(0), dates.get(1));
+        assertThat(secondPage.getOrders()).extracting(OrderDto::getDateCreated)
+                .containsExactly(dates.get(2));
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldFilterOrderHistoryByInclusiveDateRange() {
+        // Given
+        LocalDate day = dates.get(1).toLocalDate();
+        OrderPageRequestDto pageRequest = OrderPageRequestDto.builder()
+                .from(day)
+                .to(day)
+                .build();
+
+        // When
+        OrderPageDto orderPage = cut.getAllOrders(user, pageRequest);
+
+        // Then
+        assertThat(orderPage.getOrders()).extracting(OrderDto::getDateCreated)
+                .containsExactly(dates.get(1));
+        assertThat(orderPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldLoadOrderDetailInOneStatement() {
+        // Given
+
+        // When
+        List<OrderItemDto> orderItems = cut.getOrder(orderId, user);
+
+        // Then
+        assertThat(orderItems).hasSize(3)
+                .allSatisfy(orderItem -> assertThat(orderItem.getProduct().getName()).isNotBlank());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private User persistUser() {
+        User newUser = User.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@gmail.com")
+                .password("password")
+                .role(UserRole.USER)
+                .build();
+        entityManager.persist(newUser);
+
+        return newUser;
+    }
+
+    private Product persistProduct(String name) {
+        Product product = Product.builder()
+                .name(name)
+                .description(name + " description")
+                .imageUrl("https://example.com/" + name + ".png")
+                .price(10)
+                .currency("EUR")
+                .stockQuantity(100)
+                .build();
+        entityManager.persist(product);
+
+        return product;
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.ecommerce.api.service;
+
+import com.example.ecommerce.api.config.MoneyProperties;
+import com.example.ecommerce.api.entity.Cart;
+import com.example.ecommerce.api.entity.Order;
+import com.example.ecommerce.api.entity.OrderItem;
+import com.example.ecommerce.api.entity.Product;
+import com.example.ecommerce.api.entity.User;
+import com.example.ecommerce.api.entity.UserRole;
+import com.example.ecommerce.api.exception.CurrencyMismatchException;
+import com.example.ecommerce.api.exception.EmptyCartException;
+import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.InsufficientStockException;
+import com.example.ecommerce.api.exception.InvalidCursorException;
+import com.example.ecommerce.api.exception.OrderNotFoundException;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageDto;
+import com.example.ecommerce.api.mapstruct.dto.order.OrderPageRequestDto;
+import com.example.ecommerce.api.mapstruct.mappers.OrderMapper;
+import com.example.ecommerce.api.repository.CartRepository;
+import com.example.ecommerce.api.repository.OrderItemRepository;
+import com.example.ecommerce.api.repository.OrderRepository;
+import com.example.ecommerce.api.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private HotSkuInventory hotSkuInventory;
+    @Spy
+    private MoneyProperties moneyProperties = new MoneyProperties();
+    @InjectMocks
+    private OrderService cut;
+    private final ArgumentCaptor<Order> orderArgumentCaptor = ArgumentCaptor.forClass(Order.class);
+
+    // tests to create an order
+    @Test
+    void shouldCreateOrderFromCartAndClearCartInOneStatement() {
+        // Given
+        User user = getUser();
+        Product phone = Product.builder().id(1L).price(100).currency("EUR").build();
+        Product charger = Product.builder().id(2L).price(20).currency("EUR").build();
+        List<Cart> shoppingCart = List.of(
+                Cart.builder().product(phone).quantity(1).build(),
+                Cart.builder().product(charger).quantity(2).build());
+
+        given(cartRepository.findAllWithProductByUserId(user.getId())).willReturn(shoppingCart);
+        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(1L);
+            return order;
+        });
+        given(productRepository.reserveStock(Map.of(1L, 1L, 2L, 2L))).willReturn(List.of());
+
+        // When
+        long orderId = cut.createOrder(user);
+
+        // Then
+        then(orderRepository).should().save(orderArgumentCaptor.capture());
+        Order savedOrder = orderArgumentCaptor.getValue();
+        assertThat(orderId).isEqualTo(1L);
+        assertThat(savedOrder.getOrderItems()).hasSize(2);
+        assertThat(savedOrder.getTotalPrice()).isEqualTo(140);
+        assertThat(savedOrder.getCurrency()).isEqualTo("EUR");
+        then(cartRepository).should().deleteAllByUserId(user.getId());
+    }
+
+    @Test
+    void shouldFailOrderInsteadOfOverflowingTotalPrice() {
+        // Given
+        User user = getUser();
+        Product phone = Product.builder().id(1L).price(Long.MAX_VALUE / 2).currency("EUR").build();
+        List<Cart> shoppingCart = List.of(Cart.builder().product(phone).quantity(3).build());
+
+        given(cartRepository.findAllWithProductByUserId(user.getId())).willReturn(shoppingCart);
+
+        // When
+        assertThatThrownBy(() -> cut.createOrder(user))
+                .isInstanceOf(ArithmeticException.class);
+
+        // Then
+        then(orderRepository).should(never()).save(any());
+    }
+
+    @Test
+    void shouldRejectProductPricedInAnotherCurrency() {
+        // Given
+        User user = getUser();
+        Product phone = Product.builder().id(1L).price(100).currency("USD").build();
+        List<Cart> shoppingCart = List.of(Cart.builder().product(phone).quantity(1).build());
+
+        given(cartRepository.findAllWithProductByUserId(user.getId())).willReturn(shoppingCart);
+
+        // When
+        assertThatThrownBy(() -> cut.createOrder(user))
+                .isInstanceOf(CurrencyMismatchException.class)
+                .hasMessage(ExceptionMessages.CURRENCY_MISMATCH);
+
+        // Then
+        then(orderRepository).should(never()).save(any());
+    }
+
+    @Test
+    void shouldThrowInsufficientStockExceptionWhenAnyProductIsShort() {
+        // Given
+        User user = getUser();
+        Product phone = Product.builder().id(1L).price(100).currency("EUR").build();
+        Product charger = Product.builder().id(2L).price(20).currency("EUR").build();
+        List<Cart> shoppingCart = List.of(
+                Cart.builder().product(phone).quantity(1).build(),
+                Cart.builder().product(charger).quantity(2).build());
+
+        given(cartRepository.findAllWithProductByUserId(user.getId())).willReturn(shoppingCart);
+        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(productRepository.reserveStock(Map.of(1L, 1L, 2L, 2L))).willReturn(List.of(2L));
+
+        // When
+        assertThatThrownBy(() -> cut.createOrder(user))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage(ExceptionMessages.INSUFFICIENT_STOCK);
+
+        // Then
+        then(productRepository).should().reserveStock(Map.of(1L, 1L, 2L, 2L));
+    }
+
+    @Test
+    void shouldReserveHotProductsFromInMemoryCounters() {
+        // Given
+        User user = getUser();
+        Product phone = Product.builder().id(1L).price(100).currency("EUR").build();
+        Product charger = Product.builder().id(2L).price(20).currency("EUR").build();
+        List<Cart> shoppingCart = List.of(
+                Cart.builder().product(phone).quantity(1).build(),
+                Cart.builder().product(charger).quantity(2).build());
+
+        given(cartRepository.findAllWithProductByUserId(user.getId())).willReturn(shoppingCart);
+        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(1L);
+            return order;
+        });
+        given(hotSkuInventory.isHot(anyLong())).willAnswer(invocation -> invocation.getArgument(0).equals(1L));
+        given(hotSkuInventory.reserve(Map.of(1L, 1L))).willReturn(true);
+        given(productRepository.reserveStock(Map.of(2L, 2L))).willReturn(List.of());
+
+        // When
+        cut.createOrder(user);
+
+        // Then
+        then(orderRepository).should().save(orderArgumentCaptor.capture());
+        assertThat(orderArgumentCaptor.getValue().getOrderItems())
+                .extracting(orderItem -> orderItem.getProduct().getId(), OrderItem::isStockApplied)
+                .containsExactly(tuple(1L, false), tuple(2L, true));
+        then(productRepository).should().reserveStock(Map.of(2L, 2L));
+    }
+
+    @Test
+    void shouldNotTouchStoredStockWhenHotProductIsShort() {
+        // Given
+        User user = getUser();
+        Product phone = Product.builder().id(1L).price(100).currency("EUR").build();
+        List<Cart> shoppingCart = List.of(Cart.builder().product(phone).quantity(1).build());
+
+        given(cartRepository.findAllWithProductByUserId(user.getId())).willReturn(shoppingCart);
+        given(orderRepository.save(any(Order.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(hotSkuInventory.isHot(1L)).willReturn(true);
+        given(hotSkuInventory.reserve(Map.of(1L, 1L))).willReturn(false);
+
+        // When
+        assertThatThrownBy(() -> cut.createOrder(user))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage(ExceptionMessages.INSUFFICIENT_STOCK);
+
+        // Then
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldThrowEmptyCartExceptionWhenCartIsEmpty() {
+        // Given
+        User user = getUser();
+        given(cartRepository.findAllWithProductByUserId(user.getId())).willReturn(List.of());
+
+        // When
+        assertThatThrownBy(() -> cut.createOrder(user))
+                .isInstanceOf(EmptyCartException.class)
+                .hasMessage(ExceptionMessages.CART_IS_EMPTY);
+
+        // Then
+        then(orderRepository).should(never()).save(any());
+        then(cartRepository).should(never()).deleteAllByUserId(anyLong());
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    // tests to return order history
+    @Test
+    void shouldThrowInvalidCursorExceptionWhenCursorIsMalformed() {
+        // Given
+        User user = getUser();
+        OrderPageRequestDto pageRequest = OrderPageRequestDto.builder()
+                .cursor("not-a-cursor")
+                .build();
+
+        // When
+        assertThatThrownBy(() -> cut.getAllOrders(user, pageRequest))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage(ExceptionMessages.INVALID_CURSOR);
+
+        // Then
+        then(orderRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldEndPageAtTheDayAfterToDate() {
+        // Given
+        User user = getUser();
+        OrderPageRequestDto pageRequest = OrderPageRequestDto.builder()
+                .size(1)
+                .to(LocalDate.of(2023, 1, 31))
+                .build();
+        OrderDto first = OrderDto.builder().id(7L).dateCreated(LocalDateTime.of(2023, 1, 31, 9, 0)).build();
+        OrderDto second = OrderDto.builder().id(3L).dateCreated(LocalDateTime.of(2023, 1, 30, 9, 0)).build();
+
+        given(orderRepository.findPageBefore(eq(user.getId()), any(LocalDateTime.class),
+                eq(LocalDateTime.of(2023, 2, 1, 0, 0)), eq(0L), eq(PageRequest.of(0, 2))))
+                .willReturn(List.of(first, second));
+
+        // When
+        OrderPageDto orderPage = cut.getAllOrders(user, pageRequest);
+
+        // Then
+        assertThat(orderPage.getOrders()).containsExactly(first);
+        assertThat(orderPage.getNextCursor()).isNotNull();
+    }
+
+    // tests to return a single order
+    @Test
+    void shouldThrowOrderNotFoundExceptionWhenOrderHasNoItemsForUser() {
+        // Given
+        User user = getUser();
+        given(orderItemRepository.findAllWithProductByOrderIdAndUserId(1L, user.getId())).willReturn(List.of());
+
+        // When
+        assertThatThrownBy(() -> cut.getOrder(1L, user))
+                .isInstanceOf(OrderNotFoundException.class)
+                .hasMessage(ExceptionMessages.ORDER_NOT_FOUND);
+
+        // Then
+        then(orderMapper).shouldHaveNoInteractions();
+    }
+
+    private User getUser() {
+        return User.builder()
+                .id(1L)
+                .role(UserRole.USER)
+                .build();
+    }
+}
@@ -1,32 +1,64 @@
 package com.example.ecommerce.api.service;
 
+import com.example.ecommerce.api.exception.InvalidCursorException;
+import com.example.ecommerce.api.exception.InvalidImportException;
 import com.example.ecommerce.api.mapstruct.dto.product.AddProductDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportErrorDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductImportResultDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductPageRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.ProductResponseDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchPageDto;
+import com.example.ecommerce.api.mapstruct.dto.product.ProductSearchRequestDto;
 import com.example.ecommerce.api.mapstruct.dto.product.UpdateProductDto;
+import com.example.ecommerce.api.config.MoneyProperties;
+import com.example.ecommerce.api.config.ProductImportProperties;
 import com.example.ecommerce.api.entity.Product;
+import com.example.ecommerce.api.exception.ConflictException;
 import com.example.ecommerce.api.exception.ExceptionMessages;
+import com.example.ecommerce.api.exception.PreconditionFailedException;
 import com.example.ecommerce.api.exception.ProductNotFoundException;
 import com.example.ecommerce.api.mapstruct.mappers.ProductMapper;
 import com.example.ecommerce.api.repository.ProductRepository;
+import com.example.ecommerce.api.repository.ProductSearchView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import uk.co.jemos.podam.api.PodamFactory;
 import uk.co.jemos.podam.api.PodamFactoryImpl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.Java6Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -34,6 +66,18 @@ class ProductServiceTest {
     private ProductRepository productRepository;
     @Mock
     private ProductMapper productMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private MoneyProperties moneyProperties = new MoneyProperties();
+    @Spy
+    private ProductImportProperties importProperties = new ProductImportProperties();
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy
+    private ProductCache productCache = new ProductCache(Duration.ofMinutes(5), 100);
+    @Mock
+    private HotSkuInventory hotSkuInventory;
     @InjectMocks
     private ProductService cut;
     private static ArgumentCaptor<Product> productArgumentCaptor;
@@ -68,20 +112,208 @@ class ProductServiceTest {
         then(productRepository).should().save(productArgumentCaptor.capture());
         Product savedProduct = productArgumentCaptor.getValue();
         assertThat(savedProduct.getId()).isEqualTo(1);
+        assertThat(savedProduct.getCurrency()).isEqualTo("EUR");
     }
 
-    // tests to fetch all products
+    // tests to import products in bulk
     @Test
-    void shouldReturnLisOfProducts() {
+    void shouldImportValidRowsInBatchesAndReportInvalidOnes() throws Exception {
         // Given
-        Product product = podamFactory.manufacturePojo(Product.class);
-        given(productRepository.findAll()).willReturn(List.of(product));
+        importProperties.setBatchSize(2);
+        String json = """
+                [
+                  {"name": "Phone", "description": "A phone", "imageUrl": "phone.png", "price": 19900, "stockQuantity": 5},
+                  {"name": "", "description": "No name", "imageUrl": "none.png", "price": 100, "stockQuantity": 1},
+                  {"name": "Case", "description": "A case", "imageUrl": "case.png", "price": "cheap", "stockQuantity": 1},
+                  {"name": "Charger", "description": "A charger", "imageUrl": "charger.png", "price": 1500, "stockQuantity": 9},
+                  {"name": "Cable", "description": "A cable", "imageUrl": "cable.png", "price": 500, "stockQuantity": 20},
+                  {"name": "%s", "description": "Too long a name", "imageUrl": "long.png", "price": 500, "stockQuantity": 1}
+                ]
+                """.formatted("x".repeat(51));
+        List<Integer> batchSizes = new ArrayList<>();
+
+        given(productMapper.addProductDtoToProduct(any(AddProductDto.class))).willAnswer(invocation -> new Product());
+        willAnswer(invocation -> batchSizes.add(invocation.<List<Product>>getArgument(0).size()))
+                .given(productRepository).insertAll(anyList());
+
+        // When
+        ProductImportResultDto result = cut.importProductsFromJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getErrors())
+                .extracting(ProductImportErrorDto::getRow, ProductImportErrorDto::getField)
+                .containsExactly(tuple(2L, "name"), tuple(3L, "price"), tuple(6L, "name"));
+        assertThat(batchSizes).containsExactly(2, 1);
+    }
+
+    @Test
+    void shouldImportProductsFromCsvWithColumnsInAnyOrder() throws Exception {
+        // Given
+        String csv = """
+                price,name,description,imageUrl,stockQuantity
+                19900,Phone,"A phone, unlocked",phone.png,5
+                1500,Charger,A charger,charger.png,9
+                """;
+
+        given(productMapper.addProductDtoToProduct(any(AddProductDto.class))).willAnswer(invocation -> new Product());
 
         // When
-        cut.getProducts();
+        ProductImportResultDto result = cut.importProductsFromCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
 
         // Then
-        then(productRepository).should().findAll();
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).isEmpty();
+        then(productRepository).should().insertAll(anyList());
+        then(productMapper).should().addProductDtoToProduct(new AddProductDto(
+                "Phone", "A phone, unlocked", "phone.png", 5, 19900));
+    }
+
+    @Test
+    void shouldRejectImportThatIsNotAJsonArray() {
+        // Given
+        String json = "[{\"name\": \"Phone\",";
+
+        // When
+        assertThatThrownBy(() -> cut.importProductsFromJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(InvalidImportException.class)
+                .hasMessage(ExceptionMessages.INVALID_IMPORT);
+
+        // Then
+        then(productRepository).should(never()).insertAll(anyList());
+    }
+
+    // tests to fetch a page of products
+    @Test
+    void shouldReturnFirstPageOfProductsWithoutCursorWhenNoMoreProducts() {
+        // Given
+        ProductPageRequestDto pageRequest = ProductPageRequestDto.builder()
+                .size(2)
+                .build();
+        ProductResponseDto product = podamFactory.manufacturePojo(ProductResponseDto.class);
+        given(productRepository.findPageAfter(eq(0L), anyLong(), anyLong(), eq(false), eq(PageRequest.of(0, 3))))
+                .willReturn(List.of(product));
+
+        // When
+        ProductPageDto page = cut.getProducts(pageRequest);
+
+        // Then
+        assertThat(page.getProducts()).containsExactly(product);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    // tests to search products
+    @Test
+    void shouldReturnNextPageWhenMoreMatchesExist() {
+        // Given
+        ProductSearchRequestDto searchRequest = ProductSearchRequestDto.builder()
+                .q("charger")
+                .page(1)
+                .size(2)
+                .build();
+        ProductSearchView first = mock(ProductSearchView.class);
+        ProductSearchView second = mock(ProductSearchView.class);
+        ProductSearchView third = mock(ProductSearchView.class);
+
+        given(productRepository.search("charger", 3, 2L)).willReturn(List.of(first, second, third));
+        given(productMapper.productSearchViewToDto(any(ProductSearchView.class))).willReturn(new ProductResponseDto());
+
+        // When
+        ProductSearchPageDto page = cut.searchProducts(searchRequest);
+
+        // Then
+        assertThat(page.getProducts()).hasSize(2);
+        assertThat(page.getNextPage()).isEqualTo(2);
+        then(productMapper).should(never()).productSearchViewToDto(third);
+    }
+
+    @Test
+    void shouldNotReturnNextPageWhenAllMatchesFit() {
+        // Given
+        ProductSearchRequestDto searchRequest = ProductSearchRequestDto.builder()
+                .q("charger")
+                .build();
+
+        given(productRepository.search("charger", ProductPageRequestDto.DEFAULT_PAGE_SIZE + 1, 0L))
+                .willReturn(List.of());
+
+        // When
+        ProductSearchPageDto page = cut.searchProducts(searchRequest);
+
+        // Then
+        assertThat(page.getProducts()).isEmpty();
+        assertThat(page.getNextPage()).isNull();
+    }
+
+    @Test
+    void shouldReturnCursorPointingAtLastProductWhenMoreProductsExist() {
+        // Given
+        ProductPageRequestDto pageRequest = ProductPageRequestDto.builder()
+                .size(2)
+                .minPrice(10L)
+                .inStock(true)
+                .build();
+        ProductResponseDto first = ProductResponseDto.builder().id(4L).build();
+        ProductResponseDto second = ProductResponseDto.builder().id(7L).build();
+        ProductResponseDto third = ProductResponseDto.builder().id(9L).build();
+        given(productRepository.findPageAfter(eq(0L), eq(10L), anyLong(), eq(true), any()))
+                .willReturn(List.of(first, second, third));
+        given(productRepository.findPageAfter(eq(7L), eq(10L), anyLong(), eq(true), any()))
+                .willReturn(List.of(third));
+
+        // When
+        ProductPageDto firstPage = cut.getProducts(pageRequest);
+        pageRequest.setCursor(firstPage.getNextCursor());
+        ProductPageDto secondPage = cut.getProducts(pageRequest);
+
+        // Then
+        assertThat(firstPage.getProducts()).containsExactly(first, second);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        assertThat(secondPage.getProducts()).containsExactly(third);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldThrowInvalidCursorExceptionWhenCursorIsMalformed() {
+        // Given
+        ProductPageRequestDto pageRequest = ProductPageRequestDto.builder()
+                .cursor("not-a-cursor")
+                .build();
+
+        // When
+        assertThatThrownBy(() -> cut.getProducts(pageRequest))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage(ExceptionMessages.INVALID_CURSOR);
+
+        // Then
+        then(productRepository).should(never()).findPageAfter(anyLong(), anyLong(), anyLong(), anyBoolean(), any());
+    }
+
+    // tests to export the catalog
+    @Test
+    void shouldWriteEveryProductAsSeparateJsonLine() throws Exception {
+        // Given
+        ProductResponseDto first = podamFactory.manufacturePojo(ProductResponseDto.class);
+        ProductResponseDto second = podamFactory.manufacturePojo(ProductResponseDto.class);
+        given(productRepository.streamAll()).willReturn(Stream.of(first, second));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        cut.exportProducts(outputStream);
+
+        // Then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        // the version is only ever sent as an ETag, so it is left out of every line
+        assertThat(lines).noneMatch(line -> line.contains("version"));
+        assertThat(objectMapper.readValue(lines[0], ProductResponseDto.class))
+                .usingRecursiveComparison().ignoringFields("version").isEqualTo(first);
+        assertThat(objectMapper.readValue(lines[1], ProductResponseDto.class))
+                .usingRecursiveComparison().ignoringFields("version").isEqualTo(second);
     }
 
     // tests to return single product
@@ -93,6 +325,7 @@ class ProductServiceTest {
         product.setId(productId);
 
         given(productRepository.findById(productId)).willReturn(Optional.of(product));
+        given(productMapper.productToProductDto(product)).willReturn(podamFactory.manufacturePojo(ProductResponseDto.class));
 
         // When
         cut.getProduct(productId);
@@ -101,6 +334,46 @@ class ProductServiceTest {
         then(productRepository).should().findById(productId);
     }
 
+    @Test
+    void shouldServeRepeatedProductReadsFromCache() {
+        // Given
+        long productId = 1L;
+        Product product = podamFactory.manufacturePojo(Product.class);
+        ProductResponseDto productResponseDto = podamFactory.manufacturePojo(ProductResponseDto.class);
+
+        given(productRepository.findById(productId)).willReturn(Optional.of(product));
+        given(productMapper.productToProductDto(product)).willReturn(productResponseDto);
+
+        // When
+        cut.getProduct(productId);
+        ProductResponseDto cached = cut.getProduct(productId);
+
+        // Then
+        assertThat(cached).isEqualTo(productResponseDto);
+        then(productRepository).should(times(1)).findById(productId);
+    }
+
+    @Test
+    void shouldReloadProductAfterItWasUpdated() {
+        // Given
+        long productId = 1L;
+        Product product = podamFactory.manufacturePojo(Product.class);
+        UpdateProductDto updateProductDto = podamFactory.manufacturePojo(UpdateProductDto.class);
+
+        given(productRepository.findById(productId)).willReturn(Optional.of(product));
+        given(productMapper.productToProductDto(product)).willReturn(podamFactory.manufacturePojo(ProductResponseDto.class));
+        given(productRepository.update(eq(productId), any(), any(), any(), anyLong(), anyLong())).willReturn(1);
+        cut.getProduct(productId);
+
+        // When
+        cut.updateProduct(productId, updateProductDto, null);
+        cut.getProduct(productId);
+
+        // Then
+        then(productCache).should().evict(productId);
+        then(productRepository).should(times(2)).findById(productId);
+    }
+
     @Test
     void shouldThrowProductNotFoundExceptionWhenProductIsNotFound() {
         // Given
@@ -117,28 +390,94 @@ class ProductServiceTest {
         then(productMapper).shouldHaveNoInteractions();
     }
 
+    @Test
+    void shouldAnswerProductVersionFromCacheWithoutQueryingTheDatabase() {
+        // Given
+        long productId = 1L;
+        Product product = podamFactory.manufacturePojo(Product.class);
+        ProductResponseDto productResponseDto = podamFactory.manufacturePojo(ProductResponseDto.class);
+
+        given(productRepository.findById(productId)).willReturn(Optional.of(product));
+        given(productMapper.productToProductDto(product)).willReturn(productResponseDto);
+        cut.getProduct(productId);
+
+        // When
+        long version = cut.getProductVersion(productId);
+
+        // Then
+        assertThat(version).isEqualTo(productResponseDto.getVersion());
+        then(productRepository).should(never()).findVersionById(productId);
+    }
+
+    @Test
+    void shouldLookUpProductVersionWhenProductIsNotCached() {
+        // Given
+        long productId = 1L;
+
+        given(productRepository.findVersionById(productId)).willReturn(Optional.of(3L));
+
+        // When
+        long version = cut.getProductVersion(productId);
+
+        // Then
+        assertThat(version).isEqualTo(3L);
+        then(productRepository).should(never()).findById(productId);
+    }
+
     // tests to update a product
     @Test
     void shouldUpdateProductWhenItExists() {
         // Given
         long productId = 1L;
         UpdateProductDto updateProductDto = podamFactory.manufacturePojo(UpdateProductDto.class);
-        updateProductDto.setId(productId);
 
+        given(productRepository.update(productId, updateProductDto.getName(), updateProductDto.getDescription(),
+                updateProductDto.getImageUrl(), updateProductDto.getPrice(), updateProductDto.getStockQuantity()))
+                .willReturn(1);
 
+        // When
+        cut.updateProduct(productId, updateProductDto, null);
 
-        Product product = Product.builder().build();
+        // Then
+        then(productRepository).should(never()).findById(anyLong());
+        then(productRepository).should(never()).save(any());
+        then(productCache).should().evict(productId);
+    }
 
-        given(productRepository.findById(productId)).willReturn(Optional.of(product));
+    @Test
+    void shouldUpdateProductWhenVersionMatches() {
+        // Given
+        long productId = 1L;
+        UpdateProductDto updateProductDto = podamFactory.manufacturePojo(UpdateProductDto.class);
+
+        given(productRepository.updateIfVersionMatches(productId, 3L, updateProductDto.getName(),
+                updateProductDto.getDescription(), updateProductDto.getImageUrl(), updateProductDto.getPrice(),
+                updateProductDto.getStockQuantity()))
+                .willReturn(1);
 
         // When
-        cut.updateProduct(productId, updateProductDto);
+        cut.updateProduct(productId, updateProductDto, 3L);
 
         // Then
-        then(productRepository).should().save(productArgumentCaptor.capture());
-        Product savedProduct = productArgumentCaptor.getValue();
-        assertThat(savedProduct.getId()).isEqualTo(updateProductDto.getId());
-        assertThat(savedProduct.getName()).isEqualTo(updateProductDto.getName());
+        then(productRepository).should(never()).existsById(anyLong());
+        then(productCache).should().evict(productId);
+    }
+
+    @Test
+    void shouldFailPreconditionWhenProductWasModifiedConcurrently() {
+        // Given
+        long productId = 1L;
+        UpdateProductDto updateProductDto = podamFactory.manufacturePojo(UpdateProductDto.class);
+
+        given(productRepository.existsById(productId)).willReturn(true);
+
+        // When
+        assertThatThrownBy(() -> cut.updateProduct(productId, updateProductDto, 3L))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage(ExceptionMessages.PRODUCT_MODIFIED);
+
+        // Then
+        then(productCache).should(never()).evict(anyLong());
     }
 
     @Test
@@ -147,15 +486,33 @@ class ProductServiceTest {
         long productId = 1L;
         UpdateProductDto updateProductDto = UpdateProductDto.builder().build();
 
-        given(productRepository.findById(productId)).willReturn(Optional.empty());
+        given(productRepository.existsById(productId)).willReturn(false);
 
         // When
-        assertThatThrownBy(() -> cut.updateProduct(productId, updateProductDto))
+        assertThatThrownBy(() -> cut.updateProduct(productId, updateProductDto, null))
                 .isInstanceOf(ProductNotFoundException.class)
                 .hasMessage(ExceptionMessages.PRODUCT_NOT_FOUND);
 
         // Then
-        then(productRepository).should(never()).save(any());
+        then(productCache).should(never()).evict(anyLong());
+    }
+
+    @Test
+    void shouldNotUpdateHotProduct() {
+        // Given
+        long productId = 1L;
+        UpdateProductDto updateProductDto = podamFactory.manufacturePojo(UpdateProductDto.class);
+
+        given(hotSkuInventory.isHot(productId)).willReturn(true);
+
+        // When
+        assertThatThrownBy(() -> cut.updateProduct(productId, updateProductDto, null))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage(ExceptionMessages.HOT_PRODUCT_STOCK);
+
+        // Then
+        then(productRepository).shouldHaveNoInteractions();
+        then(productCache).should(never()).evict(anyLong());
     }
 
     // tests to remove product
@@ -173,6 +530,7 @@ class ProductServiceTest {
 
         // Then
         then(productRepository).should().deleteById(productId);
+        then(productCache).should().evict(productId);
     }
 
     @Test